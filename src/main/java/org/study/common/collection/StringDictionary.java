@@ -0,0 +1,141 @@
+package org.study.common.collection;
+
+import java.util.Arrays;
+
+/**
+ * Assigns a small int code to every distinct string and keeps one canonical String
+ * per code.
+ * <p>
+ * Values can be looked up straight from a range of a CharSequence (a CSV line, for
+ * example), so a value that is already known costs no new String. Codes are dense
+ * (0, 1, 2, ... in order of first appearance), which lets callers use them as array
+ * indexes and write them to files instead of the text.
+ * <p>
+ * Not thread-safe: a dictionary belongs to one load (see ColumnDictionaries) or one
+ * thread, and callers that share one must lock around it.
+ */
+public final class StringDictionary {
+
+    public static final int NOT_FOUND = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // slots[slot] is the code + 1, so 0 marks an empty slot
+    private int[] slots;
+    private int[] hashes;
+    private String[] values;
+    private int size;
+
+    public StringDictionary() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public StringDictionary(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        slots = new int[UuidIndex.tableSizeFor(expectedSize)];
+        hashes = new int[Math.max(expectedSize, DEFAULT_CAPACITY)];
+        values = new String[hashes.length];
+    }
+
+    // Code of the value, assigned on first use
+    public int code(CharSequence value) {
+        return code(value, 0, value.length());
+    }
+
+    public int code(CharSequence source, int start, int end) {
+        int hash = hash(source, start, end);
+        int slot = slotOf(source, start, end, hash);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        int code = size;
+        if (code == values.length) {
+            values = Arrays.copyOf(values, code * 2);
+            hashes = Arrays.copyOf(hashes, code * 2);
+        }
+        // Reuse the caller's String when it is exactly the value
+        values[code] = source instanceof String && start == 0 && end == source.length()
+            ? (String) source
+            : source.subSequence(start, end).toString();
+        hashes[code] = hash;
+        slots[slot] = code + 1;
+        // Keep the load factor at or below one half
+        if (++size * 2 > slots.length) {
+            rehash(slots.length * 2);
+        }
+        return code;
+    }
+
+    // Code of the value or NOT_FOUND, never adds it
+    public int find(CharSequence value) {
+        return find(value, 0, value.length());
+    }
+
+    public int find(CharSequence source, int start, int end) {
+        return slots[slotOf(source, start, end, hash(source, start, end))] - 1;
+    }
+
+    public String value(int code) {
+        if (code < 0 || code >= size) {
+            throw new IndexOutOfBoundsException("Unknown code: " + code);
+        }
+        return values[code];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Same result as String.hashCode() for the same characters
+    private static int hash(CharSequence source, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + source.charAt(i);
+        }
+        return hash;
+    }
+
+    // Slot holding the value, or the empty slot where it would be inserted (linear probing)
+    private int slotOf(CharSequence source, int start, int end, int hash) {
+        int mask = slots.length - 1;
+        int slot = spread(hash) & mask;
+        while (slots[slot] != 0) {
+            int code = slots[slot] - 1;
+            if (hashes[code] == hash && matches(values[code], source, start, end)) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static boolean matches(String value, CharSequence source, int start, int end) {
+        if (value.length() != end - start) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) != source.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ hash >>> 16;
+    }
+
+    private void rehash(int capacity) {
+        slots = new int[capacity];
+        int mask = capacity - 1;
+        for (int code = 0; code < size; code++) {
+            int slot = spread(hashes[code]) & mask;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            slots[slot] = code + 1;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package org.study.common.collection;
+
+import java.util.UUID;
+
+/**
+ * Open-addressing hash table from a UUID, kept as its two {@code long}s, to an
+ * int (typically a position in an array or list).
+ * <p>
+ * Keys live in a flat {@code long[]} and values in an {@code int[]}, so there are no
+ * entry nodes, no boxed integers and no UUID objects per key.
+ */
+public final class UuidIndex {
+
+    public static final int NOT_FOUND = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    // keys[2 * slot] is the most significant half, keys[2 * slot + 1] the least significant one
+    private long[] keys;
+    // values[slot] is the stored value + 1, so 0 marks an empty slot
+    private int[] values;
+    private int size;
+
+    public UuidIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public UuidIndex(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    /**
+     * Associates a non-negative value with the key.
+     *
+     * @return the previous value or {@link #NOT_FOUND}
+     */
+    public int put(long mostSigBits, long leastSigBits, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value cannot be negative");
+        }
+        int slot = slotOf(mostSigBits, leastSigBits);
+        if (values[slot] != 0) {
+            int previous = values[slot] - 1;
+            values[slot] = value + 1;
+            return previous;
+        }
+        keys[2 * slot] = mostSigBits;
+        keys[2 * slot + 1] = leastSigBits;
+        values[slot] = value + 1;
+        // Keep the load factor at or below one half
+        if (++size * 2 > values.length) {
+            rehash(values.length * 2);
+        }
+        return NOT_FOUND;
+    }
+
+    public int put(UUID key, int value) {
+        return put(key.getMostSignificantBits(), key.getLeastSignificantBits(), value);
+    }
+
+    // Value for the key or NOT_FOUND
+    public int get(long mostSigBits, long leastSigBits) {
+        return values[slotOf(mostSigBits, leastSigBits)] - 1;
+    }
+
+    public int get(UUID key) {
+        return get(key.getMostSignificantBits(), key.getLeastSignificantBits());
+    }
+
+    public boolean containsKey(long mostSigBits, long leastSigBits) {
+        return get(mostSigBits, leastSigBits) != NOT_FOUND;
+    }
+
+    public boolean containsKey(UUID key) {
+        return get(key) != NOT_FOUND;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Spreads both halves over the low bits used to pick a slot
+    static int hash(long mostSigBits, long leastSigBits) {
+        long mixed = (mostSigBits ^ Long.rotateLeft(leastSigBits, 32)) * 0x9E3779B97F4A7C15L;
+        return (int) (mixed ^ mixed >>> 29 ^ mixed >>> 47);
+    }
+
+    static int tableSizeFor(int expectedSize) {
+        int capacity = DEFAULT_CAPACITY;
+        while (capacity < expectedSize * 2L && capacity < 1 << 30) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    // Slot holding the key, or the empty slot where it would be inserted (linear probing)
+    private int slotOf(long mostSigBits, long leastSigBits) {
+        int mask = values.length - 1;
+        int slot = hash(mostSigBits, leastSigBits) & mask;
+        while (values[slot] != 0
+            && (keys[2 * slot] != mostSigBits || keys[2 * slot + 1] != leastSigBits)) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int slot = 0; slot < oldValues.length; slot++) {
+            if (oldValues[slot] != 0) {
+                int target = slotOf(oldKeys[2 * slot], oldKeys[2 * slot + 1]);
+                keys[2 * target] = oldKeys[2 * slot];
+                keys[2 * target + 1] = oldKeys[2 * slot + 1];
+                values[target] = oldValues[slot];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity * 2];
+        values = new int[capacity];
+    }
+}
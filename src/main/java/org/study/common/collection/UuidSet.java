@@ -0,0 +1,296 @@
+package org.study.common.collection;
+
+import java.io.Serializable;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Set of UUIDs kept as pairs of {@code long}s in one flat array, for the small id sets
+ * that link animals and owners.
+ * <p>
+ * Ids are stored densely, in insertion order (a removal moves the last id into the
+ * freed position). Up to {@link #SMALL_SIZE} ids they are found by a linear scan;
+ * past that an open-addressing table of positions, hashed like {@link UuidIndex}, is
+ * built so add, remove and contains stay O(1). There are no nodes and no UUID
+ * objects unless a caller asks for one.
+ */
+public final class UuidSet implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public static final int SMALL_SIZE = 8;
+
+    private static final long[] EMPTY = new long[0];
+
+    // Receives the two halves of every id, so iterating creates no UUID objects
+    @FunctionalInterface
+    public interface BitsConsumer {
+        void accept(long mostSigBits, long leastSigBits);
+    }
+
+    // ids[2 * i] is the most significant half of the i-th id, ids[2 * i + 1] the least significant one
+    private long[] ids = EMPTY;
+    private int size;
+    // index[slot] is the position + 1 of the id in that slot, 0 marks an empty slot; null in small mode
+    private int[] index;
+    private transient Set<UUID> view;
+
+    public UuidSet() {
+    }
+
+    public UuidSet(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("Expected size cannot be negative");
+        }
+        ids = new long[expectedSize * 2];
+    }
+
+    // True if the id was not in the set yet
+    public boolean add(long mostSigBits, long leastSigBits) {
+        int slot = -1;
+        if (index == null) {
+            if (scan(mostSigBits, leastSigBits) >= 0) {
+                return false;
+            }
+        } else {
+            slot = slotOf(mostSigBits, leastSigBits);
+            if (index[slot] != 0) {
+                return false;
+            }
+        }
+        if (size * 2 == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(4, ids.length * 2));
+        }
+        ids[2 * size] = mostSigBits;
+        ids[2 * size + 1] = leastSigBits;
+        size++;
+        if (index != null) {
+            index[slot] = size;
+            // Keep the load factor at or below one half
+            if (size * 2 > index.length) {
+                buildIndex(index.length * 2);
+            }
+        } else if (size > SMALL_SIZE) {
+            buildIndex(UuidIndex.tableSizeFor(size));
+        }
+        return true;
+    }
+
+    public boolean add(UUID id) {
+        return add(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    // True if the id was in the set
+    public boolean remove(long mostSigBits, long leastSigBits) {
+        int position;
+        if (index == null) {
+            position = scan(mostSigBits, leastSigBits);
+        } else {
+            int slot = slotOf(mostSigBits, leastSigBits);
+            position = index[slot] - 1;
+            if (position >= 0) {
+                deleteSlot(slot);
+            }
+        }
+        if (position < 0) {
+            return false;
+        }
+        int last = size - 1;
+        if (position != last) {
+            long lastMost = ids[2 * last];
+            long lastLeast = ids[2 * last + 1];
+            if (index != null) {
+                index[slotOf(lastMost, lastLeast)] = position + 1;
+            }
+            ids[2 * position] = lastMost;
+            ids[2 * position + 1] = lastLeast;
+        }
+        size = last;
+        return true;
+    }
+
+    public boolean remove(UUID id) {
+        return remove(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    public boolean contains(long mostSigBits, long leastSigBits) {
+        if (index == null) {
+            return scan(mostSigBits, leastSigBits) >= 0;
+        }
+        return index[slotOf(mostSigBits, leastSigBits)] != 0;
+    }
+
+    public boolean contains(UUID id) {
+        return contains(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // Halves of the id at a position between 0 and size() - 1
+    public long mostSigBits(int position) {
+        checkPosition(position);
+        return ids[2 * position];
+    }
+
+    public long leastSigBits(int position) {
+        checkPosition(position);
+        return ids[2 * position + 1];
+    }
+
+    public UUID get(int position) {
+        checkPosition(position);
+        return new UUID(ids[2 * position], ids[2 * position + 1]);
+    }
+
+    public void forEachBits(BitsConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(ids[2 * i], ids[2 * i + 1]);
+        }
+    }
+
+    // Creates one UUID per id, forEachBits avoids that
+    public void forEach(Consumer<? super UUID> action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(new UUID(ids[2 * i], ids[2 * i + 1]));
+        }
+    }
+
+    // A mutable copy
+    public Set<UUID> toSet() {
+        Set<UUID> copy = new HashSet<>(Math.max(16, size * 2));
+        forEach(copy::add);
+        return copy;
+    }
+
+    // Read-only view that follows later changes, contains() is answered without a scan
+    public Set<UUID> asSet() {
+        if (view == null) {
+            view = new View();
+        }
+        return view;
+    }
+
+    /**
+     * Appends every id in canonical 8-4-4-4-12 form, as {@code UUID.toString()} prints
+     * it, with the separator between them.
+     */
+    public StringBuilder appendTo(StringBuilder builder, String separator) {
+        for (int i = 0; i < size; i++) {
+            if (i > 0) {
+                builder.append(separator);
+            }
+            long most = ids[2 * i];
+            long least = ids[2 * i + 1];
+            hex(builder, most >>> 32, 8).append('-');
+            hex(builder, most >>> 16, 4).append('-');
+            hex(builder, most, 4).append('-');
+            hex(builder, least >>> 48, 4).append('-');
+            hex(builder, least, 12);
+        }
+        return builder;
+    }
+
+    private static StringBuilder hex(StringBuilder builder, long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            builder.append(Character.forDigit((int) (value >>> shift) & 0xF, 16));
+        }
+        return builder;
+    }
+
+    private int scan(long mostSigBits, long leastSigBits) {
+        for (int i = 0; i < size; i++) {
+            if (ids[2 * i] == mostSigBits && ids[2 * i + 1] == leastSigBits) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Slot holding the id, or the empty slot where it would be inserted (linear probing)
+    private int slotOf(long mostSigBits, long leastSigBits) {
+        int mask = index.length - 1;
+        int slot = UuidIndex.hash(mostSigBits, leastSigBits) & mask;
+        while (index[slot] != 0) {
+            int position = index[slot] - 1;
+            if (ids[2 * position] == mostSigBits && ids[2 * position + 1] == leastSigBits) {
+                break;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    // Empties the slot and shifts back the entries of its probe run, so no tombstones are needed
+    private void deleteSlot(int slot) {
+        int mask = index.length - 1;
+        int hole = slot;
+        for (int next = (hole + 1) & mask; index[next] != 0; next = (next + 1) & mask) {
+            int position = index[next] - 1;
+            int home = UuidIndex.hash(ids[2 * position], ids[2 * position + 1]) & mask;
+            // The entry may fill the hole only if its home slot is not between the hole and itself
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                index[hole] = index[next];
+                hole = next;
+            }
+        }
+        index[hole] = 0;
+    }
+
+    private void buildIndex(int capacity) {
+        index = new int[capacity];
+        for (int position = 0; position < size; position++) {
+            index[slotOf(ids[2 * position], ids[2 * position + 1])] = position + 1;
+        }
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + size);
+        }
+    }
+
+    private final class View extends AbstractSet<UUID> {
+
+        @Override
+        public boolean contains(Object value) {
+            return value instanceof UUID && UuidSet.this.contains((UUID) value);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        @Override
+        public Iterator<UUID> iterator() {
+            return new Iterator<>() {
+                private int next;
+
+                @Override
+                public boolean hasNext() {
+                    return next < size;
+                }
+
+                @Override
+                public UUID next() {
+                    if (next >= size) {
+                        throw new NoSuchElementException();
+                    }
+                    return get(next++);
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,347 @@
+package org.study.common.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+import org.study.common.model.animal.Animal;
+import org.study.common.model.animal.Owner;
+import org.study.common.model.animal.Registry;
+
+/**
+ * Writes animals.csv, owners.csv and vaccines.csv without blocking the caller.
+ * <p>
+ * Every batch is encoded on the encoder executor into a pooled buffer and then
+ * written with an {@link AsynchronousFileChannel} once the previous batch of the same
+ * file is written, right after it. Batches keep their submission order, and the
+ * encoding of later batches overlaps the disk write of the one before. All methods
+ * return at once with a {@link CompletableFuture}.
+ * <p>
+ * Batches are copied when submitted, but the model objects themselves are read
+ * later on the encoder thread and must not change until their future completes.
+ * A failed batch fails every later batch of its file without writing it, so a file
+ * never has a gap followed by data. {@link #save(Registry)} keeps at most
+ * {@link #MAX_BATCHES_IN_FLIGHT} batches queued, so the encoded bytes in memory stay
+ * bounded whatever the size of the registry.
+ */
+public final class AsyncRegistryWriter {
+
+    public static final int DEFAULT_BATCH_SIZE = 4096;
+    public static final int MAX_BATCHES_IN_FLIGHT = 8;
+
+    // Exporter staging buffer, flushed into the batch buffer
+    private static final int ENCODE_BUFFER_SIZE = 8 * 1024;
+    // Fits a batch of DEFAULT_BATCH_SIZE typical rows, larger batches grow past it
+    private static final int BATCH_BUFFER_SIZE = 1024 * 1024;
+
+    private final Sink animals;
+    private final Sink owners;
+    private final Sink vaccines;
+    private final Executor encoder;
+    private final BufferPool batchBuffers = new BufferPool(BATCH_BUFFER_SIZE, MAX_BATCHES_IN_FLIGHT, false);
+    // Completes when every save() started so far has queued all its batches, guarded by this
+    private CompletableFuture<Void> saves = CompletableFuture.completedFuture(null);
+
+    public AsyncRegistryWriter(Path directory) throws IOException {
+        this(directory, ForkJoinPool.commonPool());
+    }
+
+    // Creates or truncates the three files of RegistryLoader inside directory
+    public AsyncRegistryWriter(Path directory, Executor encoder) throws IOException {
+        this.encoder = encoder;
+        this.animals = new Sink(directory.resolve(RegistryLoader.ANIMALS_FILE));
+        Sink openedOwners = null;
+        Sink openedVaccines = null;
+        try {
+            openedOwners = new Sink(directory.resolve(RegistryLoader.OWNERS_FILE));
+            openedVaccines = new Sink(directory.resolve(RegistryLoader.VACCINES_FILE));
+        } catch (IOException e) {
+            animals.channel.close();
+            if (openedOwners != null) {
+                openedOwners.channel.close();
+            }
+            throw e;
+        }
+        this.owners = openedOwners;
+        this.vaccines = openedVaccines;
+    }
+
+    // Each future completes with the number of bytes the batch added to its file
+
+    public CompletableFuture<Long> writeAnimals(Collection<? extends Animal> batch) {
+        List<Animal> rows = new ArrayList<>(batch);
+        return animals.append(exporter -> {
+            for (Animal animal : rows) {
+                exporter.writeAnimal(animal);
+            }
+        });
+    }
+
+    public CompletableFuture<Long> writeOwners(Collection<? extends Owner> batch) {
+        List<Owner> rows = new ArrayList<>(batch);
+        return owners.append(exporter -> {
+            for (Owner owner : rows) {
+                exporter.writeOwner(owner);
+            }
+        });
+    }
+
+    // The vaccines applied to each animal of the batch
+    public CompletableFuture<Long> writeVaccines(Collection<? extends Animal> batch) {
+        List<Animal> rows = new ArrayList<>(batch);
+        return vaccines.append(exporter -> {
+            for (Animal animal : rows) {
+                exporter.writeVaccines(animal);
+            }
+        });
+    }
+
+    /**
+     * Writes the whole registry in batches of {@link #DEFAULT_BATCH_SIZE} rows. A new
+     * batch is queued each time one completes, up to {@link #MAX_BATCHES_IN_FLIGHT}.
+     *
+     * @return a future with the total number of bytes written
+     */
+    public synchronized CompletableFuture<Long> save(Registry registry) {
+        List<Supplier<CompletableFuture<Long>>> steps = new ArrayList<>();
+        for (List<Animal> batch : partition(registry.getAnimals())) {
+            steps.add(() -> writeAnimals(batch));
+            steps.add(() -> writeVaccines(batch));
+        }
+        for (List<Owner> batch : partition(registry.getOwners())) {
+            steps.add(() -> writeOwners(batch));
+        }
+        CompletableFuture<Long> result = new Window(steps).start();
+        // force() and close() must see the batches this save queues later
+        saves = CompletableFuture.allOf(saves, result.handle((bytes, failure) -> null));
+        return result;
+    }
+
+    // Completes once every batch queued so far, including the rest of running saves, is on disk
+    public CompletableFuture<Void> force() {
+        return pendingSaves().thenCompose(done ->
+            CompletableFuture.allOf(animals.force(), owners.force(), vaccines.force()));
+    }
+
+    // Waits for the queued batches without blocking, forces them and closes the files
+    public CompletableFuture<Void> close() {
+        return pendingSaves().thenCompose(done ->
+            CompletableFuture.allOf(animals.close(), owners.close(), vaccines.close()));
+    }
+
+    private synchronized CompletableFuture<Void> pendingSaves() {
+        return saves;
+    }
+
+    private static <T> List<List<T>> partition(Collection<T> rows) {
+        List<List<T>> batches = new ArrayList<>();
+        List<T> batch = new ArrayList<>(DEFAULT_BATCH_SIZE);
+        for (T row : rows) {
+            batch.add(row);
+            if (batch.size() == DEFAULT_BATCH_SIZE) {
+                batches.add(batch);
+                batch = new ArrayList<>(DEFAULT_BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    @FunctionalInterface
+    private interface BatchEncoder {
+        void encode(RegistryCsvExporter exporter) throws IOException;
+    }
+
+    // Queues the steps of one save in order, starting the next one whenever one completes
+    private static final class Window {
+
+        private final List<Supplier<CompletableFuture<Long>>> steps;
+        private final CompletableFuture<Long> result = new CompletableFuture<>();
+        // Guarded by this
+        private int next;
+        private int running;
+        private long bytes;
+
+        private Window(List<Supplier<CompletableFuture<Long>>> steps) {
+            this.steps = steps;
+        }
+
+        private CompletableFuture<Long> start() {
+            synchronized (this) {
+                if (steps.isEmpty()) {
+                    result.complete(0L);
+                }
+                while (running < MAX_BATCHES_IN_FLIGHT && next < steps.size()) {
+                    submitNext();
+                }
+            }
+            return result;
+        }
+
+        // Called holding the lock, so steps reach their files in list order
+        private void submitNext() {
+            running++;
+            CompletableFuture<Long> step;
+            try {
+                step = steps.get(next++).get();
+            } catch (RuntimeException e) {
+                // E.g. a RejectedExecutionException from an executor that was shut down
+                running--;
+                next = steps.size();
+                result.completeExceptionally(e);
+                return;
+            }
+            step.whenComplete(this::completed);
+        }
+
+        private synchronized void completed(Long written, Throwable failure) {
+            running--;
+            if (failure != null) {
+                // Later steps would fail too, stop queueing them
+                next = steps.size();
+                result.completeExceptionally(failure);
+                return;
+            }
+            bytes += written;
+            if (next < steps.size() && !result.isDone()) {
+                submitNext();
+            } else if (running == 0 && !result.isDone()) {
+                result.complete(bytes);
+            }
+        }
+    }
+
+    // Growable write target over a pooled buffer; a batch that outgrows it moves to a larger, unpooled one
+    private final class BatchChannel implements WritableByteChannel {
+
+        private ByteBuffer buffer = batchBuffers.acquire();
+
+        @Override
+        public int write(ByteBuffer source) {
+            int count = source.remaining();
+            if (buffer.remaining() < count) {
+                ByteBuffer grown = ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + count));
+                grown.put(buffer.flip());
+                batchBuffers.release(buffer);
+                buffer = grown;
+            }
+            buffer.put(source);
+            return count;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+
+    // One file: a chain of futures that hands every batch the offset where it starts
+    private final class Sink {
+
+        private final AsynchronousFileChannel channel;
+        // Completes with the end offset of the last queued batch once it is written, guarded by this.
+        // It fails when a write fails, and so does every batch chained after it
+        private CompletableFuture<Long> tail;
+        private CompletableFuture<Void> written;
+
+        private Sink(Path path) throws IOException {
+            this.channel = AsynchronousFileChannel.open(path,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+            this.tail = CompletableFuture.completedFuture(0L);
+            this.written = CompletableFuture.completedFuture(null);
+        }
+
+        private synchronized CompletableFuture<Long> append(BatchEncoder batch) {
+            CompletableFuture<ByteBuffer> encoded = CompletableFuture.supplyAsync(() -> encode(batch), encoder);
+            // Encoding starts right away, the write waits for the one before it
+            CompletableFuture<Long> start = tail;
+            CompletableFuture<Long> write = start.thenCombine(encoded, (offset, bytes) -> write(bytes, offset))
+                .thenCompose(pending -> pending);
+            tail = start.thenCombine(write, Long::sum);
+            written = CompletableFuture.allOf(written, write);
+            // Written or abandoned, the buffer goes back to the pool
+            write.whenComplete((bytes, failure) -> encoded.thenAccept(batchBuffers::release));
+            return write;
+        }
+
+        private synchronized CompletableFuture<Void> force() {
+            return written.thenRun(() -> {
+                try {
+                    channel.force(false);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        private CompletableFuture<Void> close() {
+            return force().whenComplete((done, failure) -> {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+
+        private ByteBuffer encode(BatchEncoder batch) {
+            BatchChannel bytes = new BatchChannel();
+            try (RegistryCsvExporter exporter = new RegistryCsvExporter(bytes, ENCODE_BUFFER_SIZE)) {
+                batch.encode(exporter);
+            } catch (IOException e) {
+                batchBuffers.release(bytes.buffer);
+                throw new UncheckedIOException(e);
+            } catch (RuntimeException e) {
+                batchBuffers.release(bytes.buffer);
+                throw e;
+            }
+            return bytes.buffer.flip();
+        }
+
+        // Keeps writing until the whole buffer is in the file (writes may be partial)
+        private CompletableFuture<Long> write(ByteBuffer bytes, long offset) {
+            CompletableFuture<Long> result = new CompletableFuture<>();
+            long size = bytes.remaining();
+            if (size == 0) {
+                result.complete(0L);
+                return result;
+            }
+            channel.write(bytes, offset, offset, new CompletionHandler<Integer, Long>() {
+                @Override
+                public void completed(Integer count, Long position) {
+                    if (bytes.hasRemaining()) {
+                        long next = position + count;
+                        channel.write(bytes, next, next, this);
+                    } else {
+                        result.complete(size);
+                    }
+                }
+
+                @Override
+                public void failed(Throwable failure, Long position) {
+                    result.completeExceptionally(failure);
+                }
+            });
+            return result;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package org.study.common.io;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Small thread-safe pool of equally sized byte buffers.
+ * <p>
+ * Buffers are handed out cleared and taken back with {@link #release(ByteBuffer)}.
+ * When the pool is empty a new buffer is allocated, and when it is full a released
+ * buffer is simply dropped, so the pool never blocks and never holds more than
+ * {@code maxPooled} idle buffers.
+ */
+public final class BufferPool {
+
+    private final int bufferSize;
+    private final boolean direct;
+    private final BlockingQueue<ByteBuffer> idle;
+
+    public BufferPool(int bufferSize, int maxPooled, boolean direct) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        if (maxPooled <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive");
+        }
+        this.bufferSize = bufferSize;
+        this.direct = direct;
+        this.idle = new ArrayBlockingQueue<>(maxPooled);
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    public boolean isDirect() {
+        return direct;
+    }
+
+    public ByteBuffer acquire() {
+        ByteBuffer buffer = idle.poll();
+        if (buffer == null) {
+            return direct ? ByteBuffer.allocateDirect(bufferSize) : ByteBuffer.allocate(bufferSize);
+        }
+        return buffer.clear();
+    }
+
+    // Buffers of another size or kind are not pooled
+    public void release(ByteBuffer buffer) {
+        if (buffer.capacity() == bufferSize && buffer.isDirect() == direct) {
+            idle.offer(buffer);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.study.common.io;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+
+/**
+ * InputStream that refills a pooled (usually direct) ByteBuffer from a channel one
+ * buffer at a time. {@link #getChannelReads()} counts the calls that reached the
+ * channel, i.e. the read system calls for a file.
+ */
+public final class BufferedChannelInputStream extends InputStream {
+
+    private final ReadableByteChannel channel;
+    private final BufferPool pool;
+    private ByteBuffer buffer;
+    private long channelReads;
+    private boolean endOfStream;
+
+    public BufferedChannelInputStream(ReadableByteChannel channel, BufferPool pool) {
+        this.channel = channel;
+        this.pool = pool;
+        this.buffer = pool.acquire().flip();
+    }
+
+    @Override
+    public int read() throws IOException {
+        ensureOpen();
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xff;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        if (length == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        int count = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        ensureOpen();
+        return buffer.remaining();
+    }
+
+    public long getChannelReads() {
+        return channelReads;
+    }
+
+    // Gives the buffer back to the pool and closes the channel
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        pool.release(buffer);
+        buffer = null;
+        channel.close();
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfStream) {
+            return false;
+        }
+        buffer.clear();
+        int read;
+        do {
+            read = channel.read(buffer);
+            channelReads++;
+        } while (read == 0);
+        buffer.flip();
+        if (read < 0) {
+            endOfStream = true;
+            return false;
+        }
+        return true;
+    }
+
+    private void ensureOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package org.study.common.io;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * OutputStream that collects writes in a pooled (usually direct) ByteBuffer and
+ * hands it to the channel only when it is full, on flush or on close.
+ * <p>
+ * With a direct buffer the channel writes straight from native memory, without the
+ * temporary copy the JDK makes for heap buffers. {@link #getChannelWrites()} counts
+ * the calls that reached the channel, i.e. the write system calls for a file.
+ */
+public final class BufferedChannelOutputStream extends OutputStream {
+
+    private final WritableByteChannel channel;
+    private final BufferPool pool;
+    private ByteBuffer buffer;
+    private long channelWrites;
+    private long bytesWritten;
+
+    public BufferedChannelOutputStream(WritableByteChannel channel, BufferPool pool) {
+        this.channel = channel;
+        this.pool = pool;
+        this.buffer = pool.acquire();
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (!buffer.hasRemaining()) {
+            drain();
+        }
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        if (length >= buffer.capacity()) {
+            // Larger than the buffer, copying it first would only add work
+            drain();
+            ByteBuffer wrapped = ByteBuffer.wrap(bytes, offset, length);
+            while (wrapped.hasRemaining()) {
+                bytesWritten += channel.write(wrapped);
+                channelWrites++;
+            }
+            return;
+        }
+        if (length > buffer.remaining()) {
+            drain();
+        }
+        buffer.put(bytes, offset, length);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        drain();
+    }
+
+    public long getChannelWrites() {
+        return channelWrites;
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten + (buffer == null ? 0 : buffer.position());
+    }
+
+    // Flushes, gives the buffer back to the pool and closes the channel
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            drain();
+        } finally {
+            pool.release(buffer);
+            buffer = null;
+            channel.close();
+        }
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+            channelWrites++;
+        }
+        buffer.clear();
+    }
+
+    private void ensureOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.study.common.io;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shared entry point for buffered file I/O on top of {@link FileChannel}.
+ * <p>
+ * Every stream borrows a direct ByteBuffer from a pool kept per buffer size and
+ * returns it on close, so opening many short-lived files does not allocate (or
+ * leak) native memory each time. Small writes such as the field-by-field output of
+ * ObjectOutputStream are merged into one channel write per buffer.
+ */
+public final class ChannelStreams {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    // Idle direct buffers kept per size
+    private static final int MAX_POOLED_BUFFERS = 16;
+    private static final Map<Integer, BufferPool> POOLS = new ConcurrentHashMap<>();
+
+    private ChannelStreams() {
+    }
+
+    public static BufferedChannelOutputStream newOutputStream(Path path) throws IOException {
+        return newOutputStream(path, DEFAULT_BUFFER_SIZE);
+    }
+
+    // Creates or truncates the file
+    public static BufferedChannelOutputStream newOutputStream(Path path, int bufferSize) throws IOException {
+        BufferPool pool = pool(bufferSize);
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+        return new BufferedChannelOutputStream(channel, pool);
+    }
+
+    public static BufferedChannelInputStream newInputStream(Path path) throws IOException {
+        return newInputStream(path, DEFAULT_BUFFER_SIZE);
+    }
+
+    public static BufferedChannelInputStream newInputStream(Path path, int bufferSize) throws IOException {
+        BufferPool pool = pool(bufferSize);
+        return new BufferedChannelInputStream(FileChannel.open(path, StandardOpenOption.READ), pool);
+    }
+
+    // UTF-8 text over a pooled channel stream
+    public static BufferedWriter newWriter(Path path) throws IOException {
+        return new BufferedWriter(new OutputStreamWriter(newOutputStream(path), StandardCharsets.UTF_8));
+    }
+
+    public static BufferedReader newReader(Path path) throws IOException {
+        return new BufferedReader(new InputStreamReader(newInputStream(path), StandardCharsets.UTF_8));
+    }
+
+    static BufferPool pool(int bufferSize) {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        return POOLS.computeIfAbsent(bufferSize, size -> new BufferPool(size, MAX_POOLED_BUFFERS, true));
+    }
+}
@@ -0,0 +1,103 @@
+package org.study.common.io;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Copies whole files or byte ranges between files without reading them into the heap.
+ * <p>
+ * Copies go through {@link FileChannel#transferTo} and {@link FileChannel#transferFrom},
+ * which the operating system can serve from the page cache directly (sendfile or
+ * copy_file_range on Linux). {@link #map} gives a read-only view of a range instead,
+ * for example to open one snapshot stored inside an archive file in place.
+ */
+public final class ChannelTransfers {
+
+    private ChannelTransfers() {
+    }
+
+    /**
+     * Copies source over target (created or truncated) and forces it to disk.
+     *
+     * @return the number of bytes copied
+     */
+    public static long copy(Path source, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            return copyRange(in, 0, in.size(), target);
+        }
+    }
+
+    // Copies count bytes of source starting at position into target, for example one entry of an archive
+    public static long copyRange(Path source, long position, long count, Path target) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ)) {
+            return copyRange(in, position, count, target);
+        }
+    }
+
+    /**
+     * Appends source at the end of archive (created if missing) and forces it to disk.
+     *
+     * @return the offset of the copy inside archive, to extract or map it later
+     */
+    public static long append(Path source, Path archive) throws IOException {
+        try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(archive, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long offset = out.size();
+            long count = in.size();
+            long done = 0;
+            while (done < count) {
+                // transferFrom reads from the current position of a channel source
+                in.position(done);
+                long moved = out.transferFrom(in, offset + done, count - done);
+                if (moved <= 0) {
+                    throw new EOFException(source + " shrank while it was being appended");
+                }
+                done += moved;
+            }
+            out.force(false);
+            return offset;
+        }
+    }
+
+    // Read-only mapping of count bytes starting at position, valid after the file is closed
+    public static MappedByteBuffer map(Path file, long position, long count) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            checkRange(channel, position, count);
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, count);
+        }
+    }
+
+    private static long copyRange(FileChannel in, long position, long count, Path target) throws IOException {
+        checkRange(in, position, count);
+        try (FileChannel out = FileChannel.open(target,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+            long done = 0;
+            // transferTo may move fewer bytes than asked (2 GiB per call on Linux)
+            while (done < count) {
+                long moved = in.transferTo(position + done, count - done, out);
+                if (moved <= 0) {
+                    throw new EOFException("Source ended after " + done + " of " + count + " bytes for " + target);
+                }
+                done += moved;
+            }
+            out.force(false);
+            return done;
+        }
+    }
+
+    private static void checkRange(FileChannel channel, long position, long count) throws IOException {
+        if (position < 0 || count < 0) {
+            throw new IllegalArgumentException("Invalid range: position " + position + ", count " + count);
+        }
+        if (position + count > channel.size()) {
+            throw new EOFException("Range " + position + "+" + count + " is past the end of a file of "
+                + channel.size() + " bytes");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.study.common.io;
+
+import org.study.common.collection.StringDictionary;
+import org.study.common.model.animal.Owner;
+import org.study.common.model.animal.Vaccine;
+
+/**
+ * The string dictionaries of one load of the registry files, one per low-cardinality
+ * column: owner city, state and country, and vaccine brand each have their own codes.
+ * <p>
+ * An instance belongs to a single loader, or to a single range of a parallel one, and
+ * is dropped with it, so nothing grows for the life of the process. Rows are read
+ * with {@link FieldCursor#nextKnownString} and only the values of accepted rows are
+ * added, through {@link #add(Owner)} and {@link #add(Vaccine)}. Not thread-safe.
+ */
+public final class ColumnDictionaries {
+
+    private final StringDictionary cities = new StringDictionary();
+    private final StringDictionary states = new StringDictionary();
+    private final StringDictionary countries = new StringDictionary();
+    private final StringDictionary brands = new StringDictionary();
+
+    public StringDictionary cities() {
+        return cities;
+    }
+
+    public StringDictionary states() {
+        return states;
+    }
+
+    public StringDictionary countries() {
+        return countries;
+    }
+
+    public StringDictionary brands() {
+        return brands;
+    }
+
+    // Registers the location of an accepted owner; a new value becomes the canonical instance
+    public void add(Owner owner) {
+        cities.code(owner.getCity());
+        states.code(owner.getState());
+        countries.code(owner.getCountry());
+    }
+
+    public void add(Vaccine vaccine) {
+        brands.code(vaccine.getBrand());
+    }
+}
@@ -0,0 +1,578 @@
+package org.study.common.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.UUID;
+import org.study.common.collection.StringDictionary;
+import org.study.common.model.animal.Animal;
+import org.study.common.model.animal.Owner;
+import org.study.common.model.animal.Registry;
+import org.study.common.model.animal.Vaccine;
+
+/**
+ * Column-oriented binary snapshot of a {@link Registry}, read through a memory mapping.
+ * <p>
+ * Every attribute is stored as its own column: ids as two {@code long} columns (most
+ * and least significant bits), ages and volumes as {@code int} columns, dates as epoch
+ * days and all text as {@code int} codes into a string dictionary that is written
+ * once. Opening a snapshot only maps the file and checks the header; values are read
+ * straight from the mapping when they are asked for, so a warm start costs page-ins
+ * instead of a CSV parse.
+ * <p>
+ * Layout (big-endian, every column starts on an 8 byte boundary):
+ * <pre>
+ * header      magic, version, animals, owners, vaccines, strings, string bytes,
+ *             animal-owner links, owner-animal links (9 ints)
+ * dictionary  start offsets int[strings + 1], UTF-8 bytes
+ * animals     id long[2][animals], name int[], age int[],
+ *             link start int[animals + 1], owner id long[2][links]
+ * owners      id long[2][owners], text int[10][owners], age int[],
+ *             link start int[owners + 1], animal id long[2][links]
+ * vaccines    id long[2][vaccines], volume int[], brand int[], epoch day int[],
+ *             animal row int[]
+ * </pre>
+ * A vaccine points at the row of its animal in the animal columns.
+ */
+public final class ColumnarSnapshot {
+
+    public static final int MAGIC = 0x52534E50; // "RSNP"
+    public static final int VERSION = 1;
+
+    // Text columns of an owner, in this order
+    public static final int OWNER_NAME = 0;
+    public static final int OWNER_USERNAME = 1;
+    public static final int OWNER_EMAIL = 2;
+    public static final int OWNER_PASSWORD = 3;
+    public static final int OWNER_PHONE = 4;
+    public static final int OWNER_ADDRESS = 5;
+    public static final int OWNER_CITY = 6;
+    public static final int OWNER_STATE = 7;
+    public static final int OWNER_COUNTRY = 8;
+    public static final int OWNER_ZIP = 9;
+    static final int OWNER_TEXT_COLUMNS = 10;
+
+    private static final int HEADER_INTS = 9;
+
+    private final ByteBuffer data;
+    private final Layout layout;
+    private final String[] strings;
+
+    private ColumnarSnapshot(ByteBuffer data, Layout layout) {
+        this.data = data;
+        this.layout = layout;
+        this.strings = new String[layout.strings];
+    }
+
+    /**
+     * Writes the registry, with the vaccines of every animal, to {@code path}.
+     *
+     * @return the size of the snapshot in bytes
+     */
+    public static long write(Registry registry, Path path) throws IOException {
+        Columns columns = new Columns(registry);
+        Layout layout = new Layout(
+            columns.animals, columns.owners, columns.vaccines.size(),
+            columns.dictionary.size(), columns.stringBytes,
+            columns.animalOwnerLinks, columns.ownerAnimalLinks);
+        if (layout.size > Integer.MAX_VALUE) {
+            throw new IOException("Registry is too large for a single snapshot file");
+        }
+        try (FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, layout.size);
+            columns.writeTo(buffer, layout);
+            buffer.force();
+        }
+        return layout.size;
+    }
+
+    // Maps the snapshot, the mapping stays valid after the file is closed
+    public static ColumnarSnapshot open(Path path) throws IOException {
+        long size;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+        }
+        return open(path, 0, size);
+    }
+
+    /**
+     * Maps a snapshot stored at {@code position} inside a larger file, such as an
+     * archive built with {@link ChannelTransfers#append}, without copying it out first.
+     */
+    public static ColumnarSnapshot open(Path path, long position, long size) throws IOException {
+        if (size < HEADER_INTS * Integer.BYTES || size > Integer.MAX_VALUE) {
+            throw new IOException("Not a registry snapshot: " + path);
+        }
+        MappedByteBuffer data = ChannelTransfers.map(path, position, size);
+        if (data.getInt(0) != MAGIC) {
+            throw new IOException("Not a registry snapshot: " + path);
+        }
+        if (data.getInt(4) != VERSION) {
+            throw new IOException("Unsupported snapshot version " + data.getInt(4) + ": " + path);
+        }
+        Layout layout = new Layout(
+            data.getInt(8), data.getInt(12), data.getInt(16),
+            data.getInt(20), data.getInt(24), data.getInt(28), data.getInt(32));
+        if (layout.size != size) {
+            throw new IOException("Truncated or corrupt snapshot: " + path);
+        }
+        return new ColumnarSnapshot(data, layout);
+    }
+
+    public int animalCount() {
+        return layout.animals;
+    }
+
+    public int ownerCount() {
+        return layout.owners;
+    }
+
+    public int vaccineCount() {
+        return layout.vaccines;
+    }
+
+    public int dictionarySize() {
+        return layout.strings;
+    }
+
+    // Decoded on first use and cached
+    public String string(int code) {
+        String value = strings[code];
+        if (value == null) {
+            int start = intAt(layout.stringStarts, code);
+            int end = intAt(layout.stringStarts, code + 1);
+            byte[] bytes = new byte[end - start];
+            data.get((int) layout.stringBytes + start, bytes);
+            value = new String(bytes, StandardCharsets.UTF_8);
+            strings[code] = value;
+        }
+        return value;
+    }
+
+    // Animal columns
+
+    public UUID animalId(int row) {
+        return uuid(layout.animalIdMost, layout.animalIdLeast, row);
+    }
+
+    public int animalNameCode(int row) {
+        return intAt(layout.animalName, row);
+    }
+
+    public int animalAge(int row) {
+        return intAt(layout.animalAge, row);
+    }
+
+    public int animalOwnerCount(int row) {
+        return intAt(layout.animalOwnerStart, row + 1) - intAt(layout.animalOwnerStart, row);
+    }
+
+    // Owner columns
+
+    public UUID ownerId(int row) {
+        return uuid(layout.ownerIdMost, layout.ownerIdLeast, row);
+    }
+
+    // column is one of the OWNER_* constants
+    public int ownerTextCode(int row, int column) {
+        if (column < 0 || column >= OWNER_TEXT_COLUMNS) {
+            throw new IllegalArgumentException("Unknown owner text column: " + column);
+        }
+        return intAt(layout.ownerText + (long) column * layout.owners * Integer.BYTES, row);
+    }
+
+    public int ownerAge(int row) {
+        return intAt(layout.ownerAge, row);
+    }
+
+    // Vaccine columns
+
+    public UUID vaccineId(int row) {
+        return uuid(layout.vaccineIdMost, layout.vaccineIdLeast, row);
+    }
+
+    public int vaccineVolumeInMl(int row) {
+        return intAt(layout.vaccineVolume, row);
+    }
+
+    public int vaccineBrandCode(int row) {
+        return intAt(layout.vaccineBrand, row);
+    }
+
+    public int vaccineEpochDay(int row) {
+        return intAt(layout.vaccineEpochDay, row);
+    }
+
+    // Row of the animal the vaccine was applied to
+    public int vaccineAnimalRow(int row) {
+        return intAt(layout.vaccineAnimal, row);
+    }
+
+    /**
+     * Rows of the vaccines expired on the reference date. The application-day column is
+     * compared with {@link Vaccine#expiryThreshold}, one int per row, without building
+     * a Vaccine or a date.
+     */
+    public BitSet expiredVaccines(LocalDate reference) {
+        int threshold = Vaccine.expiryThreshold(reference);
+        BitSet expired = new BitSet(layout.vaccines);
+        for (int row = 0; row < layout.vaccines; row++) {
+            if (intAt(layout.vaccineEpochDay, row) < threshold) {
+                expired.set(row);
+            }
+        }
+        return expired;
+    }
+
+    // Rows of the animals with at least one vaccine expired on the reference date
+    public BitSet overdueAnimals(LocalDate reference) {
+        int threshold = Vaccine.expiryThreshold(reference);
+        BitSet overdue = new BitSet(layout.animals);
+        for (int row = 0; row < layout.vaccines; row++) {
+            if (intAt(layout.vaccineEpochDay, row) < threshold) {
+                overdue.set(intAt(layout.vaccineAnimal, row));
+            }
+        }
+        return overdue;
+    }
+
+    /**
+     * Builds model objects for every row. Owner and animal links are restored exactly
+     * as they were written, including ids that do not resolve to a record.
+     */
+    public Registry toRegistry() {
+        Registry registry = new Registry(layout.animals, layout.owners);
+        Animal[] animals = new Animal[layout.animals];
+        for (int row = 0; row < layout.animals; row++) {
+            Animal animal = new Animal(animalId(row), string(animalNameCode(row)), animalAge(row));
+            int end = intAt(layout.animalOwnerStart, row + 1);
+            for (int link = intAt(layout.animalOwnerStart, row); link < end; link++) {
+                animal.addOwnerId(uuid(layout.animalOwnerMost, layout.animalOwnerLeast, link));
+            }
+            animals[row] = animal;
+            registry.addAnimal(animal);
+        }
+        for (int row = 0; row < layout.owners; row++) {
+            Owner owner = new Owner(ownerId(row),
+                ownerText(row, OWNER_NAME),
+                ownerText(row, OWNER_USERNAME),
+                ownerText(row, OWNER_EMAIL),
+                ownerText(row, OWNER_PASSWORD),
+                ownerAge(row),
+                ownerText(row, OWNER_PHONE),
+                ownerText(row, OWNER_ADDRESS),
+                ownerText(row, OWNER_CITY),
+                ownerText(row, OWNER_STATE),
+                ownerText(row, OWNER_COUNTRY),
+                ownerText(row, OWNER_ZIP));
+            int end = intAt(layout.ownerAnimalStart, row + 1);
+            for (int link = intAt(layout.ownerAnimalStart, row); link < end; link++) {
+                owner.addAnimalId(uuid(layout.ownerAnimalMost, layout.ownerAnimalLeast, link));
+            }
+            registry.addOwner(owner);
+        }
+        for (int row = 0; row < layout.vaccines; row++) {
+            Vaccine vaccine = new Vaccine(vaccineId(row),
+                vaccineVolumeInMl(row),
+                string(vaccineBrandCode(row)),
+                LocalDate.ofEpochDay(vaccineEpochDay(row)));
+            animals[vaccineAnimalRow(row)].addVaccine(vaccine);
+        }
+        return registry;
+    }
+
+    public static Registry load(Path path) throws IOException {
+        return open(path).toRegistry();
+    }
+
+    private String ownerText(int row, int column) {
+        return string(ownerTextCode(row, column));
+    }
+
+    private int intAt(long column, int row) {
+        return data.getInt((int) (column + (long) row * Integer.BYTES));
+    }
+
+    private UUID uuid(long mostColumn, long leastColumn, int row) {
+        return new UUID(
+            data.getLong((int) (mostColumn + (long) row * Long.BYTES)),
+            data.getLong((int) (leastColumn + (long) row * Long.BYTES)));
+    }
+
+    // Byte offset of every column, derived from the counts in the header
+    private static final class Layout {
+
+        private final int animals;
+        private final int owners;
+        private final int vaccines;
+        private final int strings;
+
+        private final long stringStarts;
+        private final long stringBytes;
+        private final long animalIdMost;
+        private final long animalIdLeast;
+        private final long animalName;
+        private final long animalAge;
+        private final long animalOwnerStart;
+        private final long animalOwnerMost;
+        private final long animalOwnerLeast;
+        private final long ownerIdMost;
+        private final long ownerIdLeast;
+        private final long ownerText;
+        private final long ownerAge;
+        private final long ownerAnimalStart;
+        private final long ownerAnimalMost;
+        private final long ownerAnimalLeast;
+        private final long vaccineIdMost;
+        private final long vaccineIdLeast;
+        private final long vaccineVolume;
+        private final long vaccineBrand;
+        private final long vaccineEpochDay;
+        private final long vaccineAnimal;
+        private final long size;
+
+        private long next;
+
+        private Layout(int animals, int owners, int vaccines, int strings, int stringByteCount,
+                       int animalOwnerLinks, int ownerAnimalLinks) throws IOException {
+            if (animals < 0 || owners < 0 || vaccines < 0 || strings < 0 || stringByteCount < 0
+                || animalOwnerLinks < 0 || ownerAnimalLinks < 0) {
+                throw new IOException("Corrupt snapshot header");
+            }
+            this.animals = animals;
+            this.owners = owners;
+            this.vaccines = vaccines;
+            this.strings = strings;
+
+            next = HEADER_INTS * Integer.BYTES;
+            stringStarts = column(strings + 1L, Integer.BYTES);
+            stringBytes = column(stringByteCount, 1);
+            animalIdMost = column(animals, Long.BYTES);
+            animalIdLeast = column(animals, Long.BYTES);
+            animalName = column(animals, Integer.BYTES);
+            animalAge = column(animals, Integer.BYTES);
+            animalOwnerStart = column(animals + 1L, Integer.BYTES);
+            animalOwnerMost = column(animalOwnerLinks, Long.BYTES);
+            animalOwnerLeast = column(animalOwnerLinks, Long.BYTES);
+            ownerIdMost = column(owners, Long.BYTES);
+            ownerIdLeast = column(owners, Long.BYTES);
+            ownerText = column((long) owners * OWNER_TEXT_COLUMNS, Integer.BYTES);
+            ownerAge = column(owners, Integer.BYTES);
+            ownerAnimalStart = column(owners + 1L, Integer.BYTES);
+            ownerAnimalMost = column(ownerAnimalLinks, Long.BYTES);
+            ownerAnimalLeast = column(ownerAnimalLinks, Long.BYTES);
+            vaccineIdMost = column(vaccines, Long.BYTES);
+            vaccineIdLeast = column(vaccines, Long.BYTES);
+            vaccineVolume = column(vaccines, Integer.BYTES);
+            vaccineBrand = column(vaccines, Integer.BYTES);
+            vaccineEpochDay = column(vaccines, Integer.BYTES);
+            vaccineAnimal = column(vaccines, Integer.BYTES);
+            size = next;
+        }
+
+        // Reserves a column and returns its offset, the next one starts 8-byte aligned
+        private long column(long elements, int elementSize) {
+            long start = next;
+            next = (start + elements * elementSize + 7) & ~7L;
+            return start;
+        }
+    }
+
+    // The registry flattened into arrays, ready to be copied into the mapping
+    private static final class Columns {
+
+        private final int animals;
+        private final int owners;
+        private final StringDictionary dictionary = new StringDictionary();
+        // UTF-8 form of every dictionary value, indexed by code
+        private final List<byte[]> encoded = new ArrayList<>();
+        private int stringBytes;
+
+        private final long[] animalIds;
+        private final int[] animalNames;
+        private final int[] animalAges;
+        private final int[] animalOwnerStarts;
+        private final LongPairs animalOwnerIds = new LongPairs();
+        private int animalOwnerLinks;
+
+        private final long[] ownerIds;
+        private final int[] ownerTexts;
+        private final int[] ownerAges;
+        private final int[] ownerAnimalStarts;
+        private final LongPairs ownerAnimalIds = new LongPairs();
+        private int ownerAnimalLinks;
+
+        private final List<Vaccine> vaccines = new ArrayList<>();
+        // Row of the animal and brand code of every vaccine, by vaccine row
+        private int[] vaccineAnimals = new int[32];
+        private int[] vaccineBrands;
+
+        private Columns(Registry registry) {
+            animals = registry.animalCount();
+            owners = registry.ownerCount();
+
+            animalIds = new long[animals * 2];
+            animalNames = new int[animals];
+            animalAges = new int[animals];
+            animalOwnerStarts = new int[animals + 1];
+            int row = 0;
+            for (Animal animal : registry.getAnimals()) {
+                animalIds[row * 2] = animal.getId().getMostSignificantBits();
+                animalIds[row * 2 + 1] = animal.getId().getLeastSignificantBits();
+                animalNames[row] = code(animal.getName());
+                animalAges[row] = animal.getAge();
+                animal.forEachOwnerIdBits(animalOwnerIds::add);
+                animalOwnerStarts[row + 1] = animalOwnerIds.size();
+                for (Vaccine vaccine : animal.vaccinesView()) {
+                    if (vaccines.size() == vaccineAnimals.length) {
+                        vaccineAnimals = Arrays.copyOf(vaccineAnimals, vaccineAnimals.length * 2);
+                    }
+                    vaccineAnimals[vaccines.size()] = row;
+                    vaccines.add(vaccine);
+                }
+                row++;
+            }
+            animalOwnerLinks = animalOwnerIds.size();
+
+            ownerIds = new long[owners * 2];
+            ownerTexts = new int[owners * OWNER_TEXT_COLUMNS];
+            ownerAges = new int[owners];
+            ownerAnimalStarts = new int[owners + 1];
+            row = 0;
+            for (Owner owner : registry.getOwners()) {
+                ownerIds[row * 2] = owner.getId().getMostSignificantBits();
+                ownerIds[row * 2 + 1] = owner.getId().getLeastSignificantBits();
+                text(row, OWNER_NAME, owner.getName());
+                text(row, OWNER_USERNAME, owner.getUsername());
+                text(row, OWNER_EMAIL, owner.getEmail());
+                text(row, OWNER_PASSWORD, owner.getPassword());
+                text(row, OWNER_PHONE, owner.getPhone());
+                text(row, OWNER_ADDRESS, owner.getAddress());
+                text(row, OWNER_CITY, owner.getCity());
+                text(row, OWNER_STATE, owner.getState());
+                text(row, OWNER_COUNTRY, owner.getCountry());
+                text(row, OWNER_ZIP, owner.getZip());
+                ownerAges[row] = owner.getAge();
+                owner.forEachAnimalIdBits(ownerAnimalIds::add);
+                ownerAnimalStarts[row + 1] = ownerAnimalIds.size();
+                row++;
+            }
+            ownerAnimalLinks = ownerAnimalIds.size();
+
+            // Brand codes must exist before the layout sizes the dictionary
+            vaccineBrands = new int[vaccines.size()];
+            for (int i = 0; i < vaccineBrands.length; i++) {
+                vaccineBrands[i] = code(vaccines.get(i).getBrand());
+            }
+        }
+
+        private void text(int row, int column, String value) {
+            ownerTexts[column * owners + row] = code(value);
+        }
+
+        private int code(String value) {
+            int code = dictionary.code(value);
+            if (code == encoded.size()) {
+                // First occurrence, every later one only costs its int code
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                encoded.add(bytes);
+                stringBytes += bytes.length;
+            }
+            return code;
+        }
+
+        private void writeTo(ByteBuffer buffer, Layout layout) {
+            buffer.putInt(0, MAGIC)
+                .putInt(4, VERSION)
+                .putInt(8, animals)
+                .putInt(12, owners)
+                .putInt(16, vaccines.size())
+                .putInt(20, dictionary.size())
+                .putInt(24, stringBytes)
+                .putInt(28, animalOwnerLinks)
+                .putInt(32, ownerAnimalLinks);
+
+            int start = 0;
+            for (int i = 0; i < encoded.size(); i++) {
+                buffer.putInt((int) layout.stringStarts + i * Integer.BYTES, start);
+                buffer.put((int) layout.stringBytes + start, encoded.get(i));
+                start += encoded.get(i).length;
+            }
+            buffer.putInt((int) layout.stringStarts + encoded.size() * Integer.BYTES, start);
+
+            putPairs(buffer, layout.animalIdMost, layout.animalIdLeast, animalIds, animals);
+            putInts(buffer, layout.animalName, animalNames);
+            putInts(buffer, layout.animalAge, animalAges);
+            putInts(buffer, layout.animalOwnerStart, animalOwnerStarts);
+            putPairs(buffer, layout.animalOwnerMost, layout.animalOwnerLeast,
+                animalOwnerIds.values, animalOwnerIds.size());
+
+            putPairs(buffer, layout.ownerIdMost, layout.ownerIdLeast, ownerIds, owners);
+            putInts(buffer, layout.ownerText, ownerTexts);
+            putInts(buffer, layout.ownerAge, ownerAges);
+            putInts(buffer, layout.ownerAnimalStart, ownerAnimalStarts);
+            putPairs(buffer, layout.ownerAnimalMost, layout.ownerAnimalLeast,
+                ownerAnimalIds.values, ownerAnimalIds.size());
+
+            for (int row = 0; row < vaccines.size(); row++) {
+                Vaccine vaccine = vaccines.get(row);
+                buffer.putLong((int) layout.vaccineIdMost + row * Long.BYTES, vaccine.getID().getMostSignificantBits());
+                buffer.putLong((int) layout.vaccineIdLeast + row * Long.BYTES, vaccine.getID().getLeastSignificantBits());
+                buffer.putInt((int) layout.vaccineVolume + row * Integer.BYTES, vaccine.getVolumeInMl());
+                buffer.putInt((int) layout.vaccineBrand + row * Integer.BYTES, vaccineBrands[row]);
+                buffer.putInt((int) layout.vaccineEpochDay + row * Integer.BYTES,
+                    Math.toIntExact(vaccine.getDateOfApplication().toEpochDay()));
+                buffer.putInt((int) layout.vaccineAnimal + row * Integer.BYTES, vaccineAnimals[row]);
+            }
+        }
+
+        private static void putInts(ByteBuffer buffer, long column, int[] values) {
+            for (int i = 0; i < values.length; i++) {
+                buffer.putInt((int) column + i * Integer.BYTES, values[i]);
+            }
+        }
+
+        // values holds (most, least) pairs, they are split into two columns
+        private static void putPairs(ByteBuffer buffer, long mostColumn, long leastColumn, long[] values, int pairs) {
+            for (int i = 0; i < pairs; i++) {
+                buffer.putLong((int) mostColumn + i * Long.BYTES, values[i * 2]);
+                buffer.putLong((int) leastColumn + i * Long.BYTES, values[i * 2 + 1]);
+            }
+        }
+    }
+
+    // Growable array of UUIDs as (most, least) pairs
+    private static final class LongPairs {
+
+        private long[] values = new long[32];
+        private int size;
+
+        private void add(long mostSigBits, long leastSigBits) {
+            if (size * 2 == values.length) {
+                long[] grown = new long[values.length * 2];
+                System.arraycopy(values, 0, grown, 0, values.length);
+                values = grown;
+            }
+            values[size * 2] = mostSigBits;
+            values[size * 2 + 1] = leastSigBits;
+            size++;
+        }
+
+        private int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.study.common.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Opens registry files that may be gzip compressed.
+ * <p>
+ * Reading looks at the first two bytes of the file (the gzip magic number), so a
+ * compressed snapshot is read directly whatever its name. Writing compresses when the
+ * file name ends with {@code .gz}, on several threads when {@code parallelism > 1}.
+ * Nothing is ever decompressed to a temporary file.
+ */
+public final class CompressedStreams {
+
+    public static final String GZIP_EXTENSION = ".gz";
+    public static final int DEFAULT_PARALLELISM = Runtime.getRuntime().availableProcessors();
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+    private CompressedStreams() {
+    }
+
+    public static boolean isGzipPath(Path path) {
+        return path.getFileName().toString().endsWith(GZIP_EXTENSION);
+    }
+
+    // Plain or gzip content, decided by the magic number
+    public static InputStream newInputStream(Path path) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(Files.newInputStream(path), STREAM_BUFFER_SIZE);
+        try {
+            in.mark(2);
+            int first = in.read();
+            int second = in.read();
+            in.reset();
+            if (first == (GZIP_MAGIC & 0xff) && second == GZIP_MAGIC >>> 8) {
+                return new GZIPInputStream(in, STREAM_BUFFER_SIZE);
+            }
+            return in;
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    public static BufferedReader newReader(Path path, int bufferSize) throws IOException {
+        return new BufferedReader(new InputStreamReader(newInputStream(path), StandardCharsets.UTF_8), bufferSize);
+    }
+
+    public static OutputStream newOutputStream(Path path) throws IOException {
+        return newOutputStream(path, DEFAULT_PARALLELISM);
+    }
+
+    // Creates or truncates the file; only .gz files are compressed
+    public static OutputStream newOutputStream(Path path, int parallelism) throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        OutputStream file = Files.newOutputStream(path);
+        if (!isGzipPath(path)) {
+            return new BufferedOutputStream(file, STREAM_BUFFER_SIZE);
+        }
+        if (parallelism == 1) {
+            return new GZIPOutputStream(file, STREAM_BUFFER_SIZE);
+        }
+        return new ParallelGzipOutputStream(file, parallelism);
+    }
+}
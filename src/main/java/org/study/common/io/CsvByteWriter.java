@@ -0,0 +1,213 @@
+package org.study.common.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Writes CSV fields as UTF-8 bytes into one reusable buffer that is drained to a
+ * channel when full.
+ * <p>
+ * Ints, UUIDs and dates are formatted digit by digit straight into the buffer, so writing a
+ * row does not create Strings, arrays or streams.
+ */
+public final class CsvByteWriter implements Closeable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    private static final byte[] HEX_DIGITS = "0123456789abcdef".getBytes();
+    private static final byte[] MIN_INT = Integer.toString(Integer.MIN_VALUE).getBytes();
+    // Worst case of one code point encoded as UTF-8 (a surrogate pair is a single code point)
+    private static final int MAX_BYTES_PER_CHAR = 4;
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final byte delimiter;
+    private boolean firstInSet;
+    private long bytesWritten;
+
+    public CsvByteWriter(WritableByteChannel channel, char delimiter) {
+        this(channel, delimiter, DEFAULT_BUFFER_SIZE);
+    }
+
+    public CsvByteWriter(WritableByteChannel channel, char delimiter, int bufferSize) {
+        if (bufferSize < 64) {
+            throw new IllegalArgumentException("Buffer size must be at least 64 bytes");
+        }
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+        this.delimiter = (byte) delimiter;
+    }
+
+    public CsvByteWriter delimiter() throws IOException {
+        ensure(1);
+        buffer.put(delimiter);
+        return this;
+    }
+
+    public CsvByteWriter endRow() throws IOException {
+        ensure(1);
+        buffer.put((byte) '\n');
+        return this;
+    }
+
+    public CsvByteWriter appendInt(int value) throws IOException {
+        ensure(MIN_INT.length);
+        if (value == Integer.MIN_VALUE) {
+            buffer.put(MIN_INT);
+            return this;
+        }
+        if (value < 0) {
+            buffer.put((byte) '-');
+            value = -value;
+        }
+        // Write the digits backwards at their final positions
+        int digits = 1;
+        for (int rest = value / 10; rest != 0; rest /= 10) {
+            digits++;
+        }
+        int position = buffer.position();
+        byte[] array = buffer.array();
+        for (int i = position + digits - 1; i >= position; i--) {
+            array[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        buffer.position(position + digits);
+        return this;
+    }
+
+    public CsvByteWriter appendUuid(UUID id) throws IOException {
+        return appendUuid(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    // Canonical 8-4-4-4-12 lower-case form, as UUID.toString() prints it
+    public CsvByteWriter appendUuid(long mostSigBits, long leastSigBits) throws IOException {
+        ensure(UuidParser.CANONICAL_LENGTH);
+        hex(mostSigBits >>> 32, 8);
+        buffer.put((byte) '-');
+        hex(mostSigBits >>> 16, 4);
+        buffer.put((byte) '-');
+        hex(mostSigBits, 4);
+        buffer.put((byte) '-');
+        hex(leastSigBits >>> 48, 4);
+        buffer.put((byte) '-');
+        hex(leastSigBits, 12);
+        return this;
+    }
+
+    public CsvByteWriter appendString(String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char current = value.charAt(i);
+            if (current < 0x80) {
+                ensure(1);
+                buffer.put((byte) current);
+            } else if (Character.isHighSurrogate(current) && i + 1 < value.length()
+                && Character.isLowSurrogate(value.charAt(i + 1))) {
+                appendCodePoint(Character.toCodePoint(current, value.charAt(++i)));
+            } else if (Character.isSurrogate(current)) {
+                // A lone surrogate has no UTF-8 encoding
+                ensure(1);
+                buffer.put((byte) '?');
+            } else {
+                appendCodePoint(current);
+            }
+        }
+        return this;
+    }
+
+    // dd/MM/yyyy, the format of vaccines.csv
+    public CsvByteWriter appendDate(LocalDate date) throws IOException {
+        int year = date.getYear();
+        if (year < 0 || year > 9999) {
+            throw new IllegalArgumentException("Year out of the dd/MM/yyyy range: " + year);
+        }
+        ensure(10);
+        twoDigits(date.getDayOfMonth());
+        buffer.put((byte) '/');
+        twoDigits(date.getMonthValue());
+        buffer.put((byte) '/');
+        twoDigits(year / 100);
+        twoDigits(year % 100);
+        return this;
+    }
+
+    // "{" id ", " id ... "}", the separators are handled by the writer
+    public CsvByteWriter beginIdSet() throws IOException {
+        ensure(1);
+        buffer.put((byte) '{');
+        firstInSet = true;
+        return this;
+    }
+
+    public CsvByteWriter appendIdSetElement(UUID id) throws IOException {
+        return appendIdSetElement(id.getMostSignificantBits(), id.getLeastSignificantBits());
+    }
+
+    public CsvByteWriter appendIdSetElement(long mostSigBits, long leastSigBits) throws IOException {
+        if (!firstInSet) {
+            ensure(2);
+            buffer.put((byte) ',').put((byte) ' ');
+        }
+        firstInSet = false;
+        return appendUuid(mostSigBits, leastSigBits);
+    }
+
+    public CsvByteWriter endIdSet() throws IOException {
+        ensure(1);
+        buffer.put((byte) '}');
+        return this;
+    }
+
+    public long bytesWritten() {
+        return bytesWritten + buffer.position();
+    }
+
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            bytesWritten += channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    // Flushes the pending bytes, the channel stays open and belongs to the caller
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void appendCodePoint(int codePoint) throws IOException {
+        ensure(MAX_BYTES_PER_CHAR);
+        if (codePoint < 0x800) {
+            buffer.put((byte) (0xC0 | codePoint >> 6));
+        } else if (codePoint < 0x10000) {
+            buffer.put((byte) (0xE0 | codePoint >> 12));
+            buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+        } else {
+            buffer.put((byte) (0xF0 | codePoint >> 18));
+            buffer.put((byte) (0x80 | codePoint >> 12 & 0x3F));
+            buffer.put((byte) (0x80 | codePoint >> 6 & 0x3F));
+        }
+        buffer.put((byte) (0x80 | codePoint & 0x3F));
+    }
+
+    private void twoDigits(int value) {
+        buffer.put((byte) ('0' + value / 10)).put((byte) ('0' + value % 10));
+    }
+
+    // Writes the lowest 'digits' hex digits of value
+    private void hex(long value, int digits) {
+        for (int shift = (digits - 1) * 4; shift >= 0; shift -= 4) {
+            buffer.put(HEX_DIGITS[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    private void ensure(int bytes) throws IOException {
+        if (buffer.remaining() < bytes) {
+            flush();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package org.study.common.io;
+
+import java.util.UUID;
+
+/**
+ * A link found in one registry file that points to an id missing from the other file.
+ */
+public final class DanglingReference {
+
+    public enum Kind {
+        // owners.csv lists an animal id that is not in animals.csv
+        OWNER_TO_ANIMAL,
+        // animals.csv lists an owner id that is not in owners.csv
+        ANIMAL_TO_OWNER,
+        // vaccines.csv points to an animal id that is not in animals.csv
+        VACCINE_TO_ANIMAL
+    }
+
+    private final Kind kind;
+    private final UUID sourceId;
+    private final UUID missingId;
+
+    public DanglingReference(Kind kind, UUID sourceId, UUID missingId) {
+        this.kind = kind;
+        this.sourceId = sourceId;
+        this.missingId = missingId;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public UUID getSourceId() {
+        return sourceId;
+    }
+
+    public UUID getMissingId() {
+        return missingId;
+    }
+
+    @Override
+    public String toString() {
+        return kind + ": " + sourceId + " -> " + missingId;
+    }
+}
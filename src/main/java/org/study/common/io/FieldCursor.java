@@ -0,0 +1,359 @@
+package org.study.common.io;
+
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import org.study.common.collection.StringDictionary;
+
+/**
+ * Cursor-style tokenizer over a delimited line.
+ * <p>
+ * Unlike {@code String.split} it does not build a {@code String[]} nor substrings:
+ * fields are located by index inside the original characters and numbers are parsed
+ * in place. Only {@link #nextString()} allocates, because the caller asked for a
+ * String. A single instance is meant to be reset and reused for every row.
+ */
+public final class FieldCursor {
+
+    // Powers of ten that are exactly representable as doubles (Clinger's fast path)
+    private static final double[] POWERS_OF_TEN = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    // Integers up to 2^53 are exact as doubles
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    private final char delimiter;
+    private final boolean trimStrings;
+
+    private CharSequence source = "";
+    private int position;
+    private int end;
+    private boolean exhausted = true;
+
+    private int fieldStart;
+    private int fieldEnd;
+
+    // Last value read by one of the tryNext methods
+    private long longValue;
+    private double doubleValue;
+    private long uuidMostSigBits;
+    private long uuidLeastSigBits;
+
+    public FieldCursor(char delimiter) {
+        this(delimiter, false);
+    }
+
+    // When trimStrings is true, nextString() drops surrounding whitespace like String.trim()
+    public FieldCursor(char delimiter, boolean trimStrings) {
+        this.delimiter = delimiter;
+        this.trimStrings = trimStrings;
+    }
+
+    public FieldCursor reset(CharSequence line) {
+        return reset(line, 0, line.length());
+    }
+
+    // Tokenizes only the window [start, end) of the given characters
+    public FieldCursor reset(CharSequence line, int start, int end) {
+        if (start < 0 || end > line.length() || start > end) {
+            throw new IndexOutOfBoundsException("Invalid window [" + start + ", " + end + ") for length " + line.length());
+        }
+        this.source = line;
+        this.position = start;
+        this.end = end;
+        this.exhausted = false;
+        this.fieldStart = start;
+        this.fieldEnd = start;
+        return this;
+    }
+
+    public boolean hasNext() {
+        return !exhausted;
+    }
+
+    // Number of fields between the current position and the end of the window
+    public int remainingFields() {
+        if (exhausted) {
+            return 0;
+        }
+        int fields = 1;
+        for (int i = position; i < end; i++) {
+            if (source.charAt(i) == delimiter) {
+                fields++;
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Moves to the next field. Its bounds, without surrounding whitespace, are then
+     * available through {@link #fieldStart()} and {@link #fieldEnd()}.
+     */
+    public void advance() {
+        if (exhausted) {
+            throw new NoSuchElementException("No more fields in line");
+        }
+        int start = position;
+        int stop = start;
+        while (stop < end && source.charAt(stop) != delimiter) {
+            stop++;
+        }
+        if (stop < end) {
+            position = stop + 1;
+        } else {
+            position = end;
+            exhausted = true;
+        }
+        while (start < stop && Character.isWhitespace(source.charAt(start))) {
+            start++;
+        }
+        while (stop > start && Character.isWhitespace(source.charAt(stop - 1))) {
+            stop--;
+        }
+        fieldStart = start;
+        fieldEnd = stop;
+    }
+
+    public void skip() {
+        advance();
+    }
+
+    public int fieldStart() {
+        return fieldStart;
+    }
+
+    public int fieldEnd() {
+        return fieldEnd;
+    }
+
+    public CharSequence source() {
+        return source;
+    }
+
+    public String nextString() {
+        int rawStart = position;
+        advance();
+        if (trimStrings) {
+            return source.subSequence(fieldStart, fieldEnd).toString();
+        }
+        // Untrimmed: the raw field runs up to the delimiter (or the end of the window)
+        int rawEnd = exhausted ? end : position - 1;
+        return source.subSequence(rawStart, rawEnd).toString();
+    }
+
+    /**
+     * Like {@link #nextString()}, but a value already in the dictionary comes back as its
+     * instance and costs no new String. Never adds to the dictionary: an unknown value
+     * comes back as a new String, to be added once its row is accepted.
+     */
+    public String nextKnownString(StringDictionary dictionary) {
+        int rawStart = position;
+        advance();
+        int start = trimStrings ? fieldStart : rawStart;
+        int stop = trimStrings ? fieldEnd : exhausted ? end : position - 1;
+        int code = dictionary.find(source, start, stop);
+        return code == StringDictionary.NOT_FOUND ? source.subSequence(start, stop).toString() : dictionary.value(code);
+    }
+
+    public int nextInt() {
+        if (!tryNextInt()) {
+            throw numberFormatError("Invalid int");
+        }
+        return intValue();
+    }
+
+    public long nextLong() {
+        if (!tryNextLong()) {
+            throw numberFormatError("Invalid long");
+        }
+        return longValue;
+    }
+
+    public double nextDouble() {
+        advance();
+        if (fastParseDouble(fieldStart, fieldEnd)) {
+            return doubleValue;
+        }
+        // Exponents, special values or too many digits: let the JDK handle (or reject) them
+        return Double.parseDouble(source.subSequence(fieldStart, fieldEnd).toString());
+    }
+
+    // Canonical UUIDs are hex-decoded in place, see UuidParser
+    public UUID nextUuid() {
+        advance();
+        return UuidParser.parse(source, fieldStart, fieldEnd);
+    }
+
+    // Non-throwing variants: they move to the next field and return false when there is
+    // none or it does not hold a valid value. The value is then read with intValue(),
+    // longValue(), doubleValue() or the uuid accessors.
+
+    public boolean tryNextInt() {
+        return tryNextLong() && longValue >= Integer.MIN_VALUE && longValue <= Integer.MAX_VALUE;
+    }
+
+    public boolean tryNextLong() {
+        if (exhausted) {
+            return false;
+        }
+        advance();
+        return parseLong(fieldStart, fieldEnd);
+    }
+
+    public boolean tryNextDouble() {
+        if (exhausted) {
+            return false;
+        }
+        advance();
+        if (fastParseDouble(fieldStart, fieldEnd)) {
+            return true;
+        }
+        if (!isDecimalLiteral(fieldStart, fieldEnd)) {
+            return false;
+        }
+        // The syntax was checked, so the JDK parser cannot throw here
+        doubleValue = Double.parseDouble(source.subSequence(fieldStart, fieldEnd).toString());
+        return true;
+    }
+
+    public boolean tryNextUuid() {
+        if (exhausted) {
+            return false;
+        }
+        advance();
+        if (!UuidParser.isCanonical(source, fieldStart, fieldEnd)) {
+            return false;
+        }
+        uuidMostSigBits = UuidParser.mostSignificantBits(source, fieldStart);
+        uuidLeastSigBits = UuidParser.leastSignificantBits(source, fieldStart);
+        return true;
+    }
+
+    public int intValue() {
+        return (int) longValue;
+    }
+
+    public long longValue() {
+        return longValue;
+    }
+
+    public double doubleValue() {
+        return doubleValue;
+    }
+
+    public long uuidMostSigBits() {
+        return uuidMostSigBits;
+    }
+
+    public long uuidLeastSigBits() {
+        return uuidLeastSigBits;
+    }
+
+    private boolean parseLong(int start, int stop) {
+        if (start == stop) {
+            return false;
+        }
+        boolean negative = false;
+        int i = start;
+        char first = source.charAt(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+            if (i == stop) {
+                return false;
+            }
+        }
+        // Accumulate as a negative number so Long.MIN_VALUE is representable
+        long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        long result = 0;
+        for (; i < stop; i++) {
+            int digit = source.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result < (limit + digit) / 10) {
+                return false;
+            }
+            result = result * 10 - digit;
+        }
+        longValue = negative ? result : -result;
+        return true;
+    }
+
+    // Plain [sign]digits[.digits] values whose result is exact, false for anything else
+    private boolean fastParseDouble(int start, int stop) {
+        int i = start;
+        boolean negative = false;
+        if (i < stop && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+            negative = source.charAt(i) == '-';
+            i++;
+        }
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenPoint = false;
+        for (; i < stop; i++) {
+            char current = source.charAt(i);
+            if (current == '.' && !seenPoint) {
+                seenPoint = true;
+                continue;
+            }
+            int digit = current - '0';
+            if (digit < 0 || digit > 9 || mantissa >= MAX_EXACT_MANTISSA / 10) {
+                return false;
+            }
+            mantissa = mantissa * 10 + digit;
+            digits++;
+            if (seenPoint) {
+                fractionDigits++;
+            }
+        }
+        if (digits == 0 || fractionDigits >= POWERS_OF_TEN.length) {
+            return false;
+        }
+        // Both operands are exact, so a single division is correctly rounded
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        doubleValue = negative ? -value : value;
+        return true;
+    }
+
+    // [sign](digits[.digits] | .digits)[(e|E)[sign]digits]
+    private boolean isDecimalLiteral(int start, int stop) {
+        int i = start;
+        if (i < stop && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+            i++;
+        }
+        int integerDigits = countDigits(i, stop);
+        i += integerDigits;
+        int fractionDigits = 0;
+        if (i < stop && source.charAt(i) == '.') {
+            i++;
+            fractionDigits = countDigits(i, stop);
+            i += fractionDigits;
+        }
+        if (integerDigits + fractionDigits == 0) {
+            return false;
+        }
+        if (i < stop && (source.charAt(i) == 'e' || source.charAt(i) == 'E')) {
+            i++;
+            if (i < stop && (source.charAt(i) == '-' || source.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentDigits = countDigits(i, stop);
+            if (exponentDigits == 0) {
+                return false;
+            }
+            i += exponentDigits;
+        }
+        return i == stop;
+    }
+
+    private int countDigits(int start, int stop) {
+        int i = start;
+        while (i < stop && source.charAt(i) >= '0' && source.charAt(i) <= '9') {
+            i++;
+        }
+        return i - start;
+    }
+
+    private NumberFormatException numberFormatError(String reason) {
+        return new NumberFormatException(reason + ": \"" + source.subSequence(fieldStart, fieldEnd) + "\"");
+    }
+}
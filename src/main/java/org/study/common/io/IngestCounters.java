@@ -0,0 +1,55 @@
+package org.study.common.io;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Accepted and rejected row counters, per {@link RowStatus}.
+ * They can be read from other threads while an ingestion is running.
+ */
+public final class IngestCounters {
+
+    private final LongAdder[] counts = new LongAdder[RowStatus.values().length];
+
+    public IngestCounters() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    public void record(RowStatus status) {
+        counts[status.ordinal()].increment();
+    }
+
+    public long getAccepted() {
+        return counts[RowStatus.ACCEPTED.ordinal()].sum();
+    }
+
+    public long getRejected() {
+        long rejected = 0;
+        for (RowStatus status : RowStatus.values()) {
+            if (!status.isAccepted()) {
+                rejected += counts[status.ordinal()].sum();
+            }
+        }
+        return rejected;
+    }
+
+    public long getCount(RowStatus status) {
+        return counts[status.ordinal()].sum();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("IngestCounters{accepted=")
+            .append(getAccepted())
+            .append(", rejected=")
+            .append(getRejected());
+        for (RowStatus status : RowStatus.values()) {
+            long count = getCount(status);
+            if (!status.isAccepted() && count > 0) {
+                builder.append(", ").append(status).append('=').append(count);
+            }
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,232 @@
+package org.study.common.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import org.study.common.model.animal.Animal;
+import org.study.common.model.animal.Owner;
+import org.study.common.model.animal.Vaccine;
+
+/**
+ * Parallel CSV parser over a memory-mapped file.
+ * <p>
+ * The file is cut into byte ranges whose boundaries are moved forward to the next
+ * newline, so no row is ever split between two ranges. Each range is mapped on its
+ * own and parsed by its own thread, owners and vaccines with their own
+ * {@link ColumnDictionaries}, so the threads share no lock.
+ */
+public final class MappedCsvParser {
+
+    // A single MappedByteBuffer is indexed with an int
+    private static final long MAX_RANGE_SIZE = Integer.MAX_VALUE;
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private MappedCsvParser() {
+    }
+
+    public static List<Animal> parseAnimals(Path path, int parallelism) throws IOException {
+        return parse(path, parallelism, RegistryCsvParser::parseAnimal);
+    }
+
+    public static List<Owner> parseOwners(Path path, int parallelism) throws IOException {
+        return parsePerRange(path, parallelism, () -> {
+            ColumnDictionaries dictionaries = new ColumnDictionaries();
+            return line -> RegistryCsvParser.parseOwner(line, dictionaries);
+        });
+    }
+
+    public static List<Vaccine> parseVaccines(Path path, int parallelism) throws IOException {
+        return parsePerRange(path, parallelism, () -> {
+            ColumnDictionaries dictionaries = new ColumnDictionaries();
+            return line -> RegistryCsvParser.parseVaccine(line, dictionaries);
+        });
+    }
+
+    // Parses every range into its own list and concatenates them in file order
+    public static <T> List<T> parse(Path path, int parallelism, Function<String, T> rowParser)
+        throws IOException {
+        return parsePerRange(path, parallelism, () -> rowParser);
+    }
+
+    // Like parse, with a row parser created for each range, for parsers that keep state such as dictionaries
+    public static <T> List<T> parsePerRange(Path path,
+                                            int parallelism,
+                                            Supplier<? extends Function<String, T>> rowParsers)
+        throws IOException {
+        List<List<T>> parts = run(path, parallelism, range -> {
+            List<T> records = new ArrayList<>();
+            parseRange(range, rowParsers.get(), records::add);
+            return records;
+        });
+        List<T> result = new ArrayList<>(parts.stream().mapToInt(List::size).sum());
+        for (List<T> part : parts) {
+            result.addAll(part);
+        }
+        return result;
+    }
+
+    /**
+     * Parses the file in parallel and hands every record to {@code consumer} without
+     * keeping it. The consumer is called from several threads at once.
+     *
+     * @return the number of parsed rows
+     */
+    public static <T> long forEach(Path path,
+                                   int parallelism,
+                                   Function<String, T> rowParser,
+                                   Consumer<? super T> consumer) throws IOException {
+        List<Long> counts = run(path, parallelism, range -> parseRange(range, rowParser, consumer));
+        return counts.stream().mapToLong(Long::longValue).sum();
+    }
+
+    // Start offsets of the newline-aligned ranges, the last element is the file size
+    static long[] splitPoints(FileChannel channel, int ranges) throws IOException {
+        long size = channel.size();
+        long[] points = new long[ranges + 1];
+        ByteBuffer probe = ByteBuffer.allocate(4096);
+        int count = 1;
+        for (int i = 1; i < ranges; i++) {
+            long start = Math.max(size * i / ranges, points[count - 1]);
+            long boundary = nextLineStart(channel, start, size, probe);
+            if (boundary > points[count - 1] && boundary < size) {
+                points[count++] = boundary;
+            }
+        }
+        points[count++] = size;
+        long[] result = new long[count];
+        System.arraycopy(points, 0, result, 0, count);
+        return result;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size, ByteBuffer probe)
+        throws IOException {
+        while (position < size) {
+            probe.clear();
+            int read = channel.read(probe, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (probe.get(i) == NEW_LINE) {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private static <R> List<R> run(Path path, int parallelism, RangeTask<R> task) throws IOException {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            // Ranges must also fit in a single mapping, so huge files get more ranges than threads
+            int ranges = (int) Math.max(parallelism, (size + MAX_RANGE_SIZE - 1) / MAX_RANGE_SIZE);
+            long[] points = splitPoints(channel, ranges);
+
+            ExecutorService executor = Executors.newFixedThreadPool(parallelism);
+            try {
+                List<Future<R>> futures = new ArrayList<>();
+                for (int i = 0; i + 1 < points.length; i++) {
+                    long start = points[i];
+                    long length = points[i + 1] - start;
+                    Callable<R> callable =
+                        () -> task.apply(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+                    futures.add(executor.submit(callable));
+                }
+                List<R> results = new ArrayList<>(futures.size());
+                for (Future<R> future : futures) {
+                    results.add(future.get());
+                }
+                return results;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IOException("Parsing of " + path + " was interrupted", e);
+            } catch (ExecutionException e) {
+                throw unwrap(e);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private static <T> long parseRange(MappedByteBuffer range,
+                                       Function<String, T> rowParser,
+                                       Consumer<? super T> consumer) {
+        byte[] line = new byte[256];
+        long rows = 0;
+        int length = 0;
+        while (range.hasRemaining()) {
+            byte current = range.get();
+            if (current != NEW_LINE) {
+                if (length == line.length) {
+                    byte[] grown = new byte[line.length * 2];
+                    System.arraycopy(line, 0, grown, 0, length);
+                    line = grown;
+                }
+                line[length++] = current;
+                continue;
+            }
+            rows += emit(line, length, rowParser, consumer);
+            length = 0;
+        }
+        // The last line of the file may not end with a newline
+        rows += emit(line, length, rowParser, consumer);
+        return rows;
+    }
+
+    private static <T> int emit(byte[] line, int length, Function<String, T> rowParser, Consumer<? super T> consumer) {
+        if (length > 0 && line[length - 1] == CARRIAGE_RETURN) {
+            length--;
+        }
+        if (length == 0) {
+            return 0;
+        }
+        String text = new String(line, 0, length, StandardCharsets.UTF_8);
+        if (text.isBlank()) {
+            return 0;
+        }
+        consumer.accept(rowParser.apply(text));
+        return 1;
+    }
+
+    private static IOException unwrap(ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IOException ioException) {
+            return ioException;
+        }
+        if (cause instanceof UncheckedIOException uncheckedIOException) {
+            return uncheckedIOException.getCause();
+        }
+        if (cause instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (cause instanceof Error error) {
+            throw error;
+        }
+        return new IOException(cause);
+    }
+
+    @FunctionalInterface
+    private interface RangeTask<R> {
+        R apply(MappedByteBuffer range) throws IOException;
+    }
+}
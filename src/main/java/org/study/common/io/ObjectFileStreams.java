@@ -0,0 +1,101 @@
+package org.study.common.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Lazy streams over files written with one {@code ObjectOutputStream.writeObject}
+ * call per record.
+ * <p>
+ * Objects are deserialized only when the stream pulls them, so {@code filter} and
+ * {@code limit} pipelines stop reading early and never hold the whole file. The end
+ * of the file is detected by peeking one byte of the underlying buffered stream
+ * before every object, not by catching {@code EOFException}. The returned stream
+ * owns the file and must be closed, ideally with try-with-resources.
+ */
+public final class ObjectFileStreams {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private ObjectFileStreams() {
+    }
+
+    /**
+     * Streams every object of the file as {@code type}.
+     * An object of another type fails the stream with a {@link ClassCastException}.
+     */
+    public static <T> Stream<T> stream(Path path, Class<T> type) throws IOException {
+        BufferedInputStream file = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE);
+        try {
+            if (isAtEnd(file)) {
+                // An empty file has not even the serialization header
+                file.close();
+                return Stream.empty();
+            }
+            ObjectInputStream in = new ObjectInputStream(file);
+            ObjectSpliterator<T> spliterator = new ObjectSpliterator<>(file, in, type);
+            return StreamSupport.stream(spliterator, false).onClose(() -> {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (IOException | RuntimeException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    private static boolean isAtEnd(BufferedInputStream in) throws IOException {
+        in.mark(1);
+        int next = in.read();
+        in.reset();
+        return next < 0;
+    }
+
+    private static final class ObjectSpliterator<T> extends Spliterators.AbstractSpliterator<T> {
+
+        private final BufferedInputStream file;
+        private final ObjectInputStream in;
+        private final Class<T> type;
+        private boolean finished;
+
+        private ObjectSpliterator(BufferedInputStream file, ObjectInputStream in, Class<T> type) {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.file = file;
+            this.in = in;
+            this.type = type;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (finished) {
+                return false;
+            }
+            try {
+                // writeObject records are not block data, so nothing is buffered inside the ObjectInputStream
+                if (isAtEnd(file)) {
+                    finished = true;
+                    return false;
+                }
+                action.accept(type.cast(in.readObject()));
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } catch (ClassNotFoundException e) {
+                throw new UncheckedIOException(new InvalidClassException(e.getMessage()));
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.study.common.io;
+
+import java.util.Arrays;
+import java.util.Set;
+import org.study.common.model.animal.OwnerValidator;
+import org.study.common.model.animal.OwnerValidator.Field;
+
+/**
+ * Every invalid field of every row of a validated batch of owners.csv rows.
+ * <p>
+ * Row {@code i} is the i-th row recorded; its violations are kept as the bit mask
+ * returned by {@link OwnerValidator#check}, so a valid row costs one int.
+ */
+public final class OwnerViolations {
+
+    private static final int INITIAL_ROWS = 1024;
+
+    private int[] masks;
+    private int rows;
+    private int invalidRows;
+    private final int[] fieldCounts = new int[Field.values().length];
+
+    public OwnerViolations() {
+        this(INITIAL_ROWS);
+    }
+
+    public OwnerViolations(int expectedRows) {
+        masks = new int[Math.max(expectedRows, 1)];
+    }
+
+    public void record(int violations) {
+        if (rows == masks.length) {
+            masks = Arrays.copyOf(masks, rows * 2);
+        }
+        masks[rows++] = violations;
+        if (violations != 0) {
+            invalidRows++;
+            for (Field field : Field.values()) {
+                if ((violations & field.mask()) != 0) {
+                    fieldCounts[field.ordinal()]++;
+                }
+            }
+        }
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public int getInvalidRows() {
+        return invalidRows;
+    }
+
+    public boolean isValid(int row) {
+        return getMask(row) == 0;
+    }
+
+    public int getMask(int row) {
+        if (row < 0 || row >= rows) {
+            throw new IndexOutOfBoundsException("Row " + row + " of " + rows);
+        }
+        return masks[row];
+    }
+
+    public Set<Field> getViolations(int row) {
+        return OwnerValidator.fields(getMask(row));
+    }
+
+    // Number of rows in which the field is invalid
+    public int getCount(Field field) {
+        return fieldCounts[field.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("OwnerViolations{rows=")
+            .append(rows)
+            .append(", invalid=")
+            .append(invalidRows);
+        for (Field field : Field.values()) {
+            if (fieldCounts[field.ordinal()] > 0) {
+                builder.append(", ").append(field).append('=').append(fieldCounts[field.ordinal()]);
+            }
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,266 @@
+package org.study.common.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+/**
+ * Gzip output stream that compresses fixed-size blocks on several threads.
+ * <p>
+ * Every block becomes an independent gzip member; members are written in order, and
+ * a sequence of members is itself a valid gzip file that {@code GZIPInputStream} and
+ * the gzip tool read as one stream. Blocks and compressed output live in pooled
+ * buffers, and at most two blocks per thread are in flight, so memory stays bounded
+ * whatever the size of the data. Deflaters are pooled by the stream and ended by
+ * {@link #close()}, so their native zlib memory does not wait for the garbage collector.
+ * <p>
+ * Like any OutputStream it must be written by one thread at a time.
+ */
+public final class ParallelGzipOutputStream extends OutputStream {
+
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+
+    // ID1 ID2 CM=deflate FLG=0 MTIME=0 XFL=0 OS=unknown
+    private static final byte[] MEMBER_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int MEMBER_TRAILER_SIZE = 8;
+
+    private final OutputStream out;
+    private final int level;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int maxInFlight;
+    private final BufferPool blocks;
+    private final BufferPool compressed;
+    private final Deque<Future<ByteBuffer>> pending = new ArrayDeque<>();
+    // At most one Deflater per block in flight, each one used by a single task at a time
+    private final Queue<Deflater> deflaters = new ConcurrentLinkedQueue<>();
+
+    private ByteBuffer block;
+    private boolean wroteMember;
+    private boolean closed;
+
+    public ParallelGzipOutputStream(OutputStream out, int parallelism) {
+        this(out, parallelism, DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION);
+    }
+
+    // Uses a pool of parallelism threads owned by the stream and shut down by close()
+    public ParallelGzipOutputStream(OutputStream out, int parallelism, int blockSize, int level) {
+        this(out, newPool(parallelism), true, parallelism, blockSize, level);
+    }
+
+    /**
+     * Compresses on the caller's executor, which close() leaves running; parallelism
+     * bounds the blocks in flight (two per thread).
+     */
+    public ParallelGzipOutputStream(OutputStream out, ExecutorService executor, int parallelism, int blockSize,
+                                    int level) {
+        this(out, executor, false, parallelism, blockSize, level);
+    }
+
+    private ParallelGzipOutputStream(OutputStream out, ExecutorService executor, boolean ownsExecutor,
+                                     int parallelism, int blockSize, int level) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        if (blockSize < 1024) {
+            throw new IllegalArgumentException("Block size must be at least 1024 bytes");
+        }
+        this.out = out;
+        this.level = level;
+        this.maxInFlight = parallelism * 2;
+        this.executor = executor;
+        this.ownsExecutor = ownsExecutor;
+        this.blocks = new BufferPool(blockSize, maxInFlight + 1, false);
+        // Deflate can expand incompressible data slightly, see deflateBound() in zlib
+        int bound = blockSize + (blockSize >>> 12) + (blockSize >>> 14) + 64
+            + MEMBER_HEADER.length + MEMBER_TRAILER_SIZE;
+        this.compressed = new BufferPool(bound, maxInFlight, false);
+        this.block = blocks.acquire();
+    }
+
+    private static ExecutorService newPool(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        return Executors.newFixedThreadPool(parallelism, task -> {
+            Thread thread = new Thread(task, "gzip-block");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        if (!block.hasRemaining()) {
+            submitBlock();
+        }
+        block.put((byte) b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        ensureOpen();
+        while (length > 0) {
+            if (!block.hasRemaining()) {
+                submitBlock();
+            }
+            int chunk = Math.min(length, block.remaining());
+            block.put(bytes, offset, chunk);
+            offset += chunk;
+            length -= chunk;
+        }
+    }
+
+    // Compresses the partial block and waits for every member to be written
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        if (block.position() > 0) {
+            submitBlock();
+        }
+        while (!pending.isEmpty()) {
+            writeOldest();
+        }
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        try {
+            flush();
+            if (!wroteMember) {
+                // An empty gzip file still needs one (empty) member
+                ByteBuffer empty = compress(ByteBuffer.allocate(0));
+                out.write(empty.array(), 0, empty.position());
+            }
+        } finally {
+            closed = true;
+            try {
+                // After a failure blocks may still be compressing, their Deflaters cannot be ended yet
+                awaitPending();
+                Deflater deflater;
+                while ((deflater = deflaters.poll()) != null) {
+                    deflater.end();
+                }
+            } finally {
+                if (ownsExecutor) {
+                    executor.shutdown();
+                }
+                out.close();
+            }
+        }
+    }
+
+    private void awaitPending() {
+        boolean interrupted = false;
+        while (!pending.isEmpty()) {
+            Future<ByteBuffer> future = pending.remove();
+            while (!future.isDone()) {
+                try {
+                    future.get();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    // Already reported, or the stream is failing anyway
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        if (pending.size() >= maxInFlight) {
+            writeOldest();
+        }
+        ByteBuffer full = block.flip();
+        pending.add(executor.submit(() -> {
+            try {
+                return compress(full);
+            } finally {
+                blocks.release(full);
+            }
+        }));
+        block = blocks.acquire();
+    }
+
+    private void writeOldest() throws IOException {
+        ByteBuffer member;
+        try {
+            member = pending.remove().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing");
+        } catch (ExecutionException e) {
+            throw new IOException("Block compression failed", e.getCause());
+        }
+        out.write(member.array(), 0, member.position());
+        compressed.release(member);
+        wroteMember = true;
+    }
+
+    // One complete gzip member: header, raw deflate data, CRC-32 and length
+    private ByteBuffer compress(ByteBuffer input) {
+        CRC32 crc = new CRC32();
+        crc.update(input.duplicate());
+        int length = input.remaining();
+
+        ByteBuffer output = compressed.acquire();
+        output.put(MEMBER_HEADER);
+        Deflater deflater = deflaters.poll();
+        if (deflater == null) {
+            deflater = new Deflater(level, true);
+        }
+        try {
+            deflater.reset();
+            deflater.setInput(input);
+            deflater.finish();
+            while (!deflater.finished()) {
+                deflater.deflate(output);
+                if (!output.hasRemaining() && !deflater.finished()) {
+                    // Cannot happen with the bound above, kept as a safety net
+                    ByteBuffer grown = ByteBuffer.allocate(output.capacity() * 2);
+                    output = grown.put(output.flip());
+                }
+            }
+        } finally {
+            deflaters.add(deflater);
+        }
+        if (output.remaining() < MEMBER_TRAILER_SIZE) {
+            ByteBuffer grown = ByteBuffer.allocate(output.capacity() + MEMBER_TRAILER_SIZE);
+            output = grown.put(output.flip());
+        }
+        putIntLittleEndian(output, (int) crc.getValue());
+        putIntLittleEndian(output, length);
+        return output;
+    }
+
+    private static void putIntLittleEndian(ByteBuffer buffer, int value) {
+        buffer.put((byte) value)
+            .put((byte) (value >>> 8))
+            .put((byte) (value >>> 16))
+            .put((byte) (value >>> 24));
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+}
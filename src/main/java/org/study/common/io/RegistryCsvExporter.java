@@ -0,0 +1,158 @@
+package org.study.common.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.UUID;
+import org.study.common.collection.UuidSet;
+import org.study.common.model.animal.Animal;
+import org.study.common.model.animal.Owner;
+import org.study.common.model.animal.Vaccine;
+
+/**
+ * Bulk CSV exporter for animals, owners and vaccines.
+ * <p>
+ * Rows are rendered in the same layout the files in src/main/resources use (and
+ * RegistryCsvParser reads) through a single {@link CsvByteWriter}, so exporting a
+ * collection allocates nothing per row. The static export methods write gzip when the
+ * target file name ends with {@code .gz}.
+ */
+public final class RegistryCsvExporter implements Closeable {
+
+    private final CsvByteWriter writer;
+    // Created once and reused for the id set of every row
+    private final UuidSet.BitsConsumer idSetWriter;
+
+    public RegistryCsvExporter(WritableByteChannel channel) {
+        this(channel, CsvByteWriter.DEFAULT_BUFFER_SIZE);
+    }
+
+    public RegistryCsvExporter(WritableByteChannel channel, int bufferSize) {
+        this.writer = new CsvByteWriter(channel, RegistryCsvParser.DELIMITER.charAt(0), bufferSize);
+        this.idSetWriter = (mostSigBits, leastSigBits) -> {
+            try {
+                writer.appendIdSetElement(mostSigBits, leastSigBits);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    // A path ending in .gz is written gzip compressed, the result is always the CSV size before compression
+    public static long exportAnimals(Iterable<? extends Animal> animals, Path path) throws IOException {
+        try (WritableByteChannel channel = openForWrite(path);
+             RegistryCsvExporter exporter = new RegistryCsvExporter(channel)) {
+            for (Animal animal : animals) {
+                exporter.writeAnimal(animal);
+            }
+            exporter.flush();
+            return exporter.bytesWritten();
+        }
+    }
+
+    public static long exportOwners(Iterable<? extends Owner> owners, Path path) throws IOException {
+        try (WritableByteChannel channel = openForWrite(path);
+             RegistryCsvExporter exporter = new RegistryCsvExporter(channel)) {
+            for (Owner owner : owners) {
+                exporter.writeOwner(owner);
+            }
+            exporter.flush();
+            return exporter.bytesWritten();
+        }
+    }
+
+    // The vaccines of every animal, in the vaccines.csv layout
+    public static long exportVaccines(Iterable<? extends Animal> animals, Path path) throws IOException {
+        try (WritableByteChannel channel = openForWrite(path);
+             RegistryCsvExporter exporter = new RegistryCsvExporter(channel)) {
+            for (Animal animal : animals) {
+                exporter.writeVaccines(animal);
+            }
+            exporter.flush();
+            return exporter.bytesWritten();
+        }
+    }
+
+    // id;name;age;{ownerId, ownerId}
+    public void writeAnimal(Animal animal) throws IOException {
+        writer.appendUuid(animal.getId()).delimiter()
+            .appendString(animal.getName()).delimiter()
+            .appendInt(animal.getAge()).delimiter()
+            .beginIdSet();
+        try {
+            animal.forEachOwnerIdBits(idSetWriter);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.endIdSet().endRow();
+    }
+
+    // id;name;username;email;password;age;phone;address;city;state;country;zip;{animalId, animalId}
+    public void writeOwner(Owner owner) throws IOException {
+        writer.appendUuid(owner.getId()).delimiter()
+            .appendString(owner.getName()).delimiter()
+            .appendString(owner.getUsername()).delimiter()
+            .appendString(owner.getEmail()).delimiter()
+            .appendString(owner.getPassword()).delimiter()
+            .appendInt(owner.getAge()).delimiter()
+            .appendString(owner.getPhone()).delimiter()
+            .appendString(owner.getAddress()).delimiter()
+            .appendString(owner.getCity()).delimiter()
+            .appendString(owner.getState()).delimiter()
+            .appendString(owner.getCountry()).delimiter()
+            .appendString(owner.getZip()).delimiter()
+            .beginIdSet();
+        try {
+            owner.forEachAnimalIdBits(idSetWriter);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.endIdSet().endRow();
+    }
+
+    // id;volumeInMl;brand;dd/MM/yyyy;animalId
+    public void writeVaccine(UUID animalId, Vaccine vaccine) throws IOException {
+        writer.appendUuid(vaccine.getID()).delimiter()
+            .appendInt(vaccine.getVolumeInMl()).delimiter()
+            .appendString(vaccine.getBrand()).delimiter()
+            .appendDate(vaccine.getDateOfApplication()).delimiter()
+            .appendUuid(animalId)
+            .endRow();
+    }
+
+    // One vaccines.csv row per vaccine applied to the animal
+    public void writeVaccines(Animal animal) throws IOException {
+        for (Vaccine vaccine : animal.vaccinesView()) {
+            writeVaccine(animal.getId(), vaccine);
+        }
+    }
+
+    public long bytesWritten() {
+        return writer.bytesWritten();
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+    // Compressed files go through a stream, plain ones straight to a FileChannel
+    private static WritableByteChannel openForWrite(Path path) throws IOException {
+        if (CompressedStreams.isGzipPath(path)) {
+            return Channels.newChannel(CompressedStreams.newOutputStream(path));
+        }
+        return FileChannel.open(path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE);
+    }
+}
@@ -0,0 +1,106 @@
+package org.study.common.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.study.common.model.animal.Animal;
+import org.study.common.model.animal.Owner;
+import org.study.common.model.animal.Vaccine;
+
+/**
+ * Lazy, constant-memory loader for the registry CSV files.
+ * <p>
+ * Lines are pulled through a fixed-size read buffer as the stream is consumed, so
+ * memory use depends on the buffer (and batch) size instead of the file size.
+ * Gzip compressed files are decompressed on the fly (see {@link CompressedStreams}).
+ * The returned streams hold an open file and must be closed, ideally with
+ * try-with-resources.
+ */
+public final class RegistryCsvLoader {
+
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    private RegistryCsvLoader() {
+    }
+
+    public static Stream<Animal> animals(Path path) throws IOException {
+        return records(path, DEFAULT_BUFFER_SIZE, RegistryCsvParser::parseAnimal);
+    }
+
+    // Repeated cities, states and countries share one String within the stream, which must stay sequential
+    public static Stream<Owner> owners(Path path) throws IOException {
+        ColumnDictionaries dictionaries = new ColumnDictionaries();
+        return records(path, DEFAULT_BUFFER_SIZE, line -> RegistryCsvParser.parseOwner(line, dictionaries));
+    }
+
+    // Repeated brands share one String within the stream, which must stay sequential
+    public static Stream<Vaccine> vaccines(Path path) throws IOException {
+        ColumnDictionaries dictionaries = new ColumnDictionaries();
+        return records(path, DEFAULT_BUFFER_SIZE, line -> RegistryCsvParser.parseVaccine(line, dictionaries));
+    }
+
+    // Maps every non-blank line of the file with the given row parser
+    public static <T> Stream<T> records(Path path, int bufferSize, Function<String, T> rowParser)
+        throws IOException {
+        return lines(path, bufferSize)
+            .filter(line -> !line.isBlank())
+            .map(rowParser);
+    }
+
+    public static Stream<String> lines(Path path, int bufferSize) throws IOException {
+        if (bufferSize <= 0) {
+            throw new IllegalArgumentException("Buffer size must be positive");
+        }
+        BufferedReader reader = CompressedStreams.newReader(path, bufferSize);
+        return reader.lines().onClose(() -> {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Groups a lazy stream into lists of at most {@code batchSize} elements.
+     * Only one batch is materialized at a time; closing the result closes the source.
+     */
+    public static <T> Stream<List<T>> batches(Stream<T> source, int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive");
+        }
+        Iterator<T> iterator = source.iterator();
+        Iterator<List<T>> batchIterator = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public List<T> next() {
+                if (!iterator.hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<T> batch = new ArrayList<>(batchSize);
+                while (batch.size() < batchSize && iterator.hasNext()) {
+                    batch.add(iterator.next());
+                }
+                return batch;
+            }
+        };
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(batchIterator, Spliterator.ORDERED | Spliterator.NONNULL),
+                false)
+            .onClose(source::close);
+    }
+}
@@ -0,0 +1,207 @@
+package org.study.common.io;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.function.Consumer;
+import org.study.common.collection.StringDictionary;
+import org.study.common.model.animal.Animal;
+import org.study.common.model.animal.Owner;
+import org.study.common.model.animal.Vaccine;
+
+/**
+ * Turns single rows of animals.csv, owners.csv and vaccines.csv into model objects.
+ * Every method works on one line, so callers decide how lines are read and buffered.
+ */
+public final class RegistryCsvParser {
+
+    public static final String DELIMITER = ";";
+
+    // Column layout of each file
+    static final int ANIMAL_COLUMNS = 4;
+    static final int OWNER_COLUMNS = 13;
+    static final int VACCINE_COLUMNS = 5;
+    private static final int DATE_LENGTH = 10;
+
+    // Cursors are reused per thread so rows are tokenized without intermediate arrays
+    private static final ThreadLocal<FieldCursor> ROW_CURSOR =
+        ThreadLocal.withInitial(() -> new FieldCursor(DELIMITER.charAt(0)));
+    private static final ThreadLocal<FieldCursor> ID_CURSOR =
+        ThreadLocal.withInitial(() -> new FieldCursor(','));
+
+    private RegistryCsvParser() {
+    }
+
+    // id;name;age;{ownerId, ownerId}
+    public static Animal parseAnimal(String line) {
+        FieldCursor cursor = rowCursor(line, ANIMAL_COLUMNS);
+        Animal animal = new Animal(cursor.nextUuid(), cursor.nextString(), cursor.nextInt());
+        forEachId(cursor, animal::addOwnerId);
+        return animal;
+    }
+
+    // id;name;username;email;password;age;phone;address;city;state;country;zip;{animalId, animalId}
+    public static Owner parseOwner(String line) {
+        return parseOwner(line, null);
+    }
+
+    // City, state and country share one String per value through the load's dictionaries, which may be null
+    public static Owner parseOwner(String line, ColumnDictionaries dictionaries) {
+        FieldCursor cursor = rowCursor(line, OWNER_COLUMNS);
+        Owner owner = new Owner(
+            cursor.nextUuid(),
+            cursor.nextString(),
+            cursor.nextString(),
+            cursor.nextString(),
+            cursor.nextString(),
+            cursor.nextInt(),
+            cursor.nextString(),
+            cursor.nextString(),
+            nextValue(cursor, dictionaries == null ? null : dictionaries.cities()),
+            nextValue(cursor, dictionaries == null ? null : dictionaries.states()),
+            nextValue(cursor, dictionaries == null ? null : dictionaries.countries()),
+            cursor.nextString());
+        forEachId(cursor, owner::addAnimalId);
+        // Only now is the row accepted
+        if (dictionaries != null) {
+            dictionaries.add(owner);
+        }
+        return owner;
+    }
+
+    // id;volumeInMl;brand;dd/MM/yyyy;animalId
+    public static Vaccine parseVaccine(String line) {
+        return parseVaccine(line, null);
+    }
+
+    public static Vaccine parseVaccine(String line, ColumnDictionaries dictionaries) {
+        Vaccine vaccine = readVaccine(rowCursor(line, VACCINE_COLUMNS), dictionaries);
+        if (dictionaries != null) {
+            dictionaries.add(vaccine);
+        }
+        return vaccine;
+    }
+
+    // Reads the vaccine columns and leaves the cursor on the animal id, see VaccineRowParser.
+    // The brand is not added to the dictionaries, the caller does it once the row is accepted
+    static Vaccine readVaccine(FieldCursor cursor, ColumnDictionaries dictionaries) {
+        return new Vaccine(cursor.nextUuid(), cursor.nextInt(),
+            nextValue(cursor, dictionaries == null ? null : dictionaries.brands()), nextDate(cursor));
+    }
+
+    // A known value is the dictionary's instance; nothing is added before the row is accepted
+    private static String nextValue(FieldCursor cursor, StringDictionary dictionary) {
+        return dictionary == null ? cursor.nextString() : cursor.nextKnownString(dictionary);
+    }
+
+    // The animal a vaccine belongs to is the last column of vaccines.csv
+    public static UUID parseVaccineAnimalId(String line) {
+        FieldCursor cursor = ROW_CURSOR.get().reset(line, line.lastIndexOf(DELIMITER) + 1, line.length());
+        return cursor.nextUuid();
+    }
+
+    private static FieldCursor rowCursor(String line, int expectedColumns) {
+        return checkColumns(ROW_CURSOR.get().reset(line), expectedColumns, line);
+    }
+
+    static FieldCursor checkColumns(FieldCursor cursor, int expectedColumns, String line) {
+        int columns = cursor.remainingFields();
+        if (columns != expectedColumns) {
+            throw new IllegalArgumentException(
+                "Expected " + expectedColumns + " columns but found " + columns + ": " + line);
+        }
+        return cursor;
+    }
+
+    // Reads the next column as "{id, id, ...}" (spaces after the commas are optional)
+    private static void forEachId(FieldCursor cursor, Consumer<UUID> action) {
+        cursor.advance();
+        CharSequence source = cursor.source();
+        int start = cursor.fieldStart();
+        int end = cursor.fieldEnd();
+        if (!hasBraces(source, start, end)) {
+            throw new IllegalArgumentException(
+                "Id set must be enclosed in braces: " + source.subSequence(start, end));
+        }
+        forEachId(source, start, end, action);
+    }
+
+    // Ids of the "{...}" set in [start, end), which must already have its braces checked
+    static void forEachId(CharSequence source, int start, int end, Consumer<UUID> action) {
+        FieldCursor ids = ID_CURSOR.get().reset(source, start + 1, end - 1);
+        if (isBlank(source, start + 1, end - 1)) {
+            return; // "{}" or "{ }"
+        }
+        while (ids.hasNext()) {
+            ids.advance();
+            action.accept(UuidParser.parse(source, ids.fieldStart(), ids.fieldEnd()));
+        }
+    }
+
+    // Non-throwing check of a "{...}" set where every id is a canonical UUID
+    static boolean isValidIdSet(CharSequence source, int start, int end) {
+        if (!hasBraces(source, start, end)) {
+            return false;
+        }
+        if (isBlank(source, start + 1, end - 1)) {
+            return true;
+        }
+        FieldCursor ids = ID_CURSOR.get().reset(source, start + 1, end - 1);
+        while (ids.hasNext()) {
+            if (!ids.tryNextUuid()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static LocalDate nextDate(FieldCursor cursor) {
+        cursor.advance();
+        LocalDate date = parseDate(cursor.source(), cursor.fieldStart(), cursor.fieldEnd());
+        if (date == null) {
+            throw new IllegalArgumentException("Date of application must be in the format dd/MM/yyyy");
+        }
+        return date;
+    }
+
+    // dd/MM/yyyy decoded from the digits without DateTimeFormatter, null when the value is not a valid date
+    static LocalDate parseDate(CharSequence source, int start, int end) {
+        if (end - start != DATE_LENGTH || source.charAt(start + 2) != '/' || source.charAt(start + 5) != '/') {
+            return null;
+        }
+        int day = digits(source, start, start + 2);
+        int month = digits(source, start + 3, start + 5);
+        int year = digits(source, start + 6, start + 10);
+        if (day < 1 || day > 31 || month < 1 || month > 12 || year < 0) {
+            return null;
+        }
+        // Like LocalDate.parse in its default (smart) mode, day 31 of a shorter month becomes its last day
+        LocalDate firstOfMonth = LocalDate.of(year, month, 1);
+        return firstOfMonth.withDayOfMonth(Math.min(day, firstOfMonth.lengthOfMonth()));
+    }
+
+    private static boolean hasBraces(CharSequence source, int start, int end) {
+        return end - start >= 2 && source.charAt(start) == '{' && source.charAt(end - 1) == '}';
+    }
+
+    private static boolean isBlank(CharSequence source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!Character.isWhitespace(source.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Value of the decimal digits in [start, end), -1 if any of them is not a digit
+    private static int digits(CharSequence source, int start, int end) {
+        int value = 0;
+        for (int i = start; i < end; i++) {
+            int digit = source.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
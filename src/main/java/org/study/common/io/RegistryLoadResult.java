@@ -0,0 +1,59 @@
+package org.study.common.io;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.study.common.model.animal.Registry;
+
+/**
+ * Outcome of {@link RegistryLoader#load()}: the linked registry plus what could not be linked.
+ */
+public final class RegistryLoadResult {
+
+    private final Registry registry;
+    private final List<DanglingReference> danglingReferences;
+    private final long vaccineCount;
+    private final long linkCount;
+
+    RegistryLoadResult(Registry registry,
+                       List<DanglingReference> danglingReferences,
+                       long vaccineCount,
+                       long linkCount) {
+        this.registry = registry;
+        this.danglingReferences = danglingReferences;
+        this.vaccineCount = vaccineCount;
+        this.linkCount = linkCount;
+    }
+
+    public Registry getRegistry() {
+        return registry;
+    }
+
+    public List<DanglingReference> getDanglingReferences() {
+        return new ArrayList<>(danglingReferences);
+    }
+
+    public boolean hasDanglingReferences() {
+        return !danglingReferences.isEmpty();
+    }
+
+    // Vaccines attached to an animal
+    public long getVaccineCount() {
+        return vaccineCount;
+    }
+
+    // Resolved owner-animal and vaccine-animal references
+    public long getLinkCount() {
+        return linkCount;
+    }
+
+    @Override
+    public String toString() {
+        return "RegistryLoadResult{" +
+            "animals=" + registry.animalCount() +
+            ", owners=" + registry.ownerCount() +
+            ", vaccines=" + vaccineCount +
+            ", links=" + linkCount +
+            ", dangling=" + danglingReferences.size() +
+            '}';
+    }
+}
@@ -0,0 +1,166 @@
+package org.study.common.io;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.study.common.collection.UuidIndex;
+import org.study.common.model.animal.Animal;
+import org.study.common.model.animal.Owner;
+import org.study.common.model.animal.Registry;
+import org.study.common.model.animal.Vaccine;
+
+/**
+ * Loads owners.csv, animals.csv and vaccines.csv and links them into one registry.
+ * <p>
+ * Both entity files are read once into {@link UuidIndex} tables from id to row
+ * position; every reference is then resolved with a single lookup on the two halves
+ * of the id (a hash join), so the whole rebuild is linear in the number of rows and
+ * links and a probe allocates nothing. References to ids that do not exist are kept
+ * out of the opposite side and reported as {@link DanglingReference}s.
+ */
+public final class RegistryLoader {
+
+    public static final String ANIMALS_FILE = "animals.csv";
+    public static final String OWNERS_FILE = "owners.csv";
+    public static final String VACCINES_FILE = "vaccines.csv";
+
+    private final Path animalsFile;
+    private final Path ownersFile;
+    private final Path vaccinesFile;
+
+    public RegistryLoader(Path animalsFile, Path ownersFile, Path vaccinesFile) {
+        this.animalsFile = animalsFile;
+        this.ownersFile = ownersFile;
+        this.vaccinesFile = vaccinesFile;
+    }
+
+    // Uses the file names of src/main/resources inside the given directory
+    public static RegistryLoader fromDirectory(Path directory) {
+        return new RegistryLoader(
+            directory.resolve(ANIMALS_FILE),
+            directory.resolve(OWNERS_FILE),
+            directory.resolve(VACCINES_FILE));
+    }
+
+    public RegistryLoadResult load() throws IOException {
+        // Repeated cities, states, countries and brands share one String within this load
+        ColumnDictionaries dictionaries = new ColumnDictionaries();
+
+        // Step 1: Build the id hash tables
+        Table<Owner> owners = new Table<>();
+        try (Stream<Owner> rows = RegistryCsvLoader.records(ownersFile, RegistryCsvLoader.DEFAULT_BUFFER_SIZE,
+            line -> RegistryCsvParser.parseOwner(line, dictionaries))) {
+            rows.forEach(owner -> owners.put(owner.getId(), owner));
+        }
+        Table<Animal> animals = new Table<>();
+        try (Stream<Animal> rows = RegistryCsvLoader.animals(animalsFile)) {
+            rows.forEach(animal -> animals.put(animal.getId(), animal));
+        }
+
+        // Step 2: Probe them once per reference
+        Linker linker = new Linker(owners, animals, dictionaries);
+        linker.linkOwnersToAnimals();
+        linker.linkAnimalsToOwners();
+        try (Stream<String> lines = RegistryCsvLoader.lines(vaccinesFile, RegistryCsvLoader.DEFAULT_BUFFER_SIZE)) {
+            lines.filter(line -> !line.isBlank()).forEach(linker::attachVaccine);
+        }
+
+        Registry registry = new Registry(animals.rows.size(), owners.rows.size());
+        owners.rows.forEach(registry::addOwner);
+        animals.rows.forEach(registry::addAnimal);
+        return new RegistryLoadResult(registry, linker.dangling, linker.vaccines, linker.links);
+    }
+
+    // Rows in file order plus the position of each id; a repeated id replaces the row in place, like Registry
+    private static final class Table<T> {
+
+        private final List<T> rows = new ArrayList<>();
+        private final UuidIndex positions = new UuidIndex();
+
+        private void put(UUID id, T row) {
+            int previous = positions.get(id);
+            if (previous != UuidIndex.NOT_FOUND) {
+                rows.set(previous, row);
+                return;
+            }
+            positions.put(id, rows.size());
+            rows.add(row);
+        }
+
+        // The row with that id or null
+        private T get(long mostSigBits, long leastSigBits) {
+            int position = positions.get(mostSigBits, leastSigBits);
+            return position == UuidIndex.NOT_FOUND ? null : rows.get(position);
+        }
+
+        private T get(UUID id) {
+            return get(id.getMostSignificantBits(), id.getLeastSignificantBits());
+        }
+    }
+
+    private static final class Linker {
+
+        private final Table<Owner> owners;
+        private final Table<Animal> animals;
+        private final List<DanglingReference> dangling = new ArrayList<>();
+        private final VaccineRowParser vaccineRows;
+        private long links;
+        private long vaccines;
+
+        private Linker(Table<Owner> owners, Table<Animal> animals, ColumnDictionaries dictionaries) {
+            this.owners = owners;
+            this.animals = animals;
+            this.vaccineRows = new VaccineRowParser(dictionaries);
+        }
+
+        // owners.csv -> animals: every valid listed animal gets the owner id (a set, so no duplicates)
+        private void linkOwnersToAnimals() {
+            for (Owner owner : owners.rows) {
+                owner.forEachAnimalIdBits((mostSigBits, leastSigBits) -> {
+                    Animal animal = animals.get(mostSigBits, leastSigBits);
+                    if (animal == null) {
+                        dangling.add(new DanglingReference(DanglingReference.Kind.OWNER_TO_ANIMAL,
+                            owner.getId(), new UUID(mostSigBits, leastSigBits)));
+                        return;
+                    }
+                    animal.addOwnerId(owner.getId());
+                    links++;
+                });
+            }
+        }
+
+        // animals.csv -> owners: owners that did not list the animal yet get it added (an O(1) set lookup)
+        private void linkAnimalsToOwners() {
+            for (Animal animal : animals.rows) {
+                animal.forEachOwnerIdBits((mostSigBits, leastSigBits) -> {
+                    Owner owner = owners.get(mostSigBits, leastSigBits);
+                    if (owner == null) {
+                        dangling.add(new DanglingReference(DanglingReference.Kind.ANIMAL_TO_OWNER,
+                            animal.getId(), new UUID(mostSigBits, leastSigBits)));
+                        return;
+                    }
+                    if (!owner.hasAnimal(animal.getId())) {
+                        owner.addAnimalId(animal.getId());
+                        links++;
+                    }
+                });
+            }
+        }
+
+        private void attachVaccine(String line) {
+            Vaccine vaccine = vaccineRows.parse(line);
+            UUID animalId = vaccineRows.animalId();
+            Animal animal = animals.get(animalId);
+            if (animal == null) {
+                dangling.add(new DanglingReference(DanglingReference.Kind.VACCINE_TO_ANIMAL, vaccine.getID(), animalId));
+                return;
+            }
+            animal.addVaccine(vaccine);
+            vaccines++;
+            links++;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package org.study.common.io;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Side file for rejected rows. Each line holds, separated by tabs, where the row came
+ * from, its result code, the reason and the original row:
+ * <pre>animals.csv:12	INVALID_NUMBER	Numeric column does not hold an integer	...;Luna;three;{}</pre>
+ */
+public final class RejectWriter implements Closeable {
+
+    private final Writer writer;
+
+    public RejectWriter(Path file) throws IOException {
+        this(Files.newBufferedWriter(file, StandardCharsets.UTF_8));
+    }
+
+    public RejectWriter(Writer writer) {
+        this.writer = writer instanceof BufferedWriter ? writer : new BufferedWriter(writer);
+    }
+
+    public void write(String source, long lineNumber, RowStatus status, String row) throws IOException {
+        writer.write(source);
+        writer.write(':');
+        writer.write(Long.toString(lineNumber));
+        writer.write('\t');
+        writer.write(status.name());
+        writer.write('\t');
+        writer.write(status.getReason());
+        writer.write('\t');
+        writer.write(row);
+        writer.write(System.lineSeparator());
+    }
+
+    public void flush() throws IOException {
+        writer.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,31 @@
+package org.study.common.io;
+
+/**
+ * Result code of validating one CSV row, returned instead of throwing an exception.
+ */
+public enum RowStatus {
+
+    ACCEPTED("Accepted"),
+    WRONG_FIELD_COUNT("Unexpected number of columns"),
+    INVALID_ID("Id is not a canonical UUID"),
+    INVALID_NUMBER("Numeric column does not hold an integer"),
+    INVALID_DATE("Date is not a valid dd/MM/yyyy date"),
+    EMPTY_FIELD("Required column is empty"),
+    OUT_OF_RANGE("Value is below the allowed minimum"),
+    INVALID_FORMAT("Column does not have the expected format"),
+    INVALID_ID_SET("Id set is not a {...} list of UUIDs");
+
+    private final String reason;
+
+    RowStatus(String reason) {
+        this.reason = reason;
+    }
+
+    public String getReason() {
+        return reason;
+    }
+
+    public boolean isAccepted() {
+        return this == ACCEPTED;
+    }
+}
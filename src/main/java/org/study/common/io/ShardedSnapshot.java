@@ -0,0 +1,296 @@
+package org.study.common.io;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.study.common.model.animal.Animal;
+import org.study.common.model.animal.Owner;
+import org.study.common.model.animal.Registry;
+
+/**
+ * Registry snapshot split into N {@link ColumnarSnapshot} shard files by id hash.
+ * <p>
+ * Animals (with their vaccines) and owners go to the shard picked by
+ * {@link #shardOf(UUID, int)}; every shard is encoded and written as its own task,
+ * and loading maps and decodes the shards in parallel before merging them. Links
+ * between owners and animals are stored as ids, so they survive being in different
+ * shards.
+ * <p>
+ * Every write is a new generation whose shard files have their own names, and the
+ * manifest (shard count and generation) is replaced last with an atomic move. A write
+ * that fails halfway therefore leaves the previous snapshot readable, and the files of
+ * older generations, whatever their shard count, are deleted only once the new
+ * manifest is in place.
+ * <p>
+ * The merged registry lists records shard by shard, not in the original order.
+ */
+public final class ShardedSnapshot {
+
+    public static final String MANIFEST_FILE = "snapshot.manifest";
+
+    private static final String SHARD_GLOB = "shard-*.snap";
+
+    private ShardedSnapshot() {
+    }
+
+    // Shard of an id, stable across runs
+    public static int shardOf(UUID id, int shards) {
+        long mixed = (id.getMostSignificantBits() ^ Long.rotateLeft(id.getLeastSignificantBits(), 32))
+            * 0x9E3779B97F4A7C15L;
+        return (int) Long.remainderUnsigned(mixed >>> 17, shards);
+    }
+
+    // Shard file of a generation; generation 0 is the layout of manifests that only hold the shard count
+    public static Path shardFile(Path directory, long generation, int shard) {
+        if (generation == 0) {
+            return directory.resolve(String.format("shard-%04d.snap", shard));
+        }
+        return directory.resolve(String.format("shard-%d-%04d.snap", generation, shard));
+    }
+
+    // Uses a temporary pool of one thread per shard, up to the number of processors
+    public static long write(Registry registry, Path directory, int shards) throws IOException {
+        ExecutorService pool = newPool(shards);
+        try {
+            return write(registry, directory, shards, pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    /**
+     * Writes the registry as {@code shards} files into directory.
+     *
+     * @return the total size of the shard files in bytes
+     */
+    public static long write(Registry registry, Path directory, int shards, ExecutorService pool)
+        throws IOException {
+        if (shards <= 0) {
+            throw new IllegalArgumentException("Shard count must be positive");
+        }
+        Files.createDirectories(directory);
+        long generation = nextGeneration(directory);
+
+        // Partitioning is a cheap pass over references, the encoding happens in the tasks
+        Registry[] parts = new Registry[shards];
+        for (int shard = 0; shard < shards; shard++) {
+            parts[shard] = new Registry(registry.animalCount() / shards + 1, registry.ownerCount() / shards + 1);
+        }
+        for (Animal animal : registry.getAnimals()) {
+            parts[shardOf(animal.getId(), shards)].addAnimal(animal);
+        }
+        for (Owner owner : registry.getOwners()) {
+            parts[shardOf(owner.getId(), shards)].addOwner(owner);
+        }
+
+        List<Callable<Long>> tasks = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            Registry part = parts[shard];
+            Path file = shardFile(directory, generation, shard);
+            tasks.add(() -> ColumnarSnapshot.write(part, file));
+        }
+        long bytes = 0;
+        for (long shardBytes : runAll(pool, tasks)) {
+            bytes += shardBytes;
+        }
+
+        publish(directory, shards, generation);
+        return bytes;
+    }
+
+    public static Registry load(Path directory) throws IOException {
+        Manifest manifest = Manifest.read(directory);
+        ExecutorService pool = newPool(manifest.shards);
+        try {
+            return load(directory, manifest, pool);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    public static Registry load(Path directory, ExecutorService pool) throws IOException {
+        return load(directory, Manifest.read(directory), pool);
+    }
+
+    // The manifest is read once, so every shard comes from the generation it names
+    private static Registry load(Path directory, Manifest manifest, ExecutorService pool) throws IOException {
+        int shards = manifest.shards;
+        List<Callable<ColumnarSnapshot>> opens = new ArrayList<>(shards);
+        for (int shard = 0; shard < shards; shard++) {
+            Path file = shardFile(directory, manifest.generation, shard);
+            opens.add(() -> ColumnarSnapshot.open(file));
+        }
+        List<ColumnarSnapshot> snapshots = runAll(pool, opens);
+
+        List<Callable<Registry>> decodes = new ArrayList<>(shards);
+        int animals = 0;
+        int owners = 0;
+        for (ColumnarSnapshot snapshot : snapshots) {
+            animals += snapshot.animalCount();
+            owners += snapshot.ownerCount();
+            decodes.add(snapshot::toRegistry);
+        }
+        Registry merged = new Registry(animals, owners);
+        for (Registry part : runAll(pool, decodes)) {
+            part.getAnimals().forEach(merged::addAnimal);
+            part.getOwners().forEach(merged::addOwner);
+        }
+        return merged;
+    }
+
+    /**
+     * Replicates the snapshot in source into target with {@link ChannelTransfers#copy},
+     * so the shard files never pass through the heap. As in {@link #write}, the
+     * copy is a new generation of target and its manifest is replaced last.
+     *
+     * @return the total size of the shard files in bytes
+     */
+    public static long copy(Path source, Path target) throws IOException {
+        Manifest manifest = Manifest.read(source);
+        Files.createDirectories(target);
+        long generation = nextGeneration(target);
+        long bytes = 0;
+        for (int shard = 0; shard < manifest.shards; shard++) {
+            bytes += ChannelTransfers.copy(shardFile(source, manifest.generation, shard),
+                shardFile(target, generation, shard));
+        }
+        publish(target, manifest.shards, generation);
+        return bytes;
+    }
+
+    // Shard count recorded in the manifest
+    public static int shardCount(Path directory) throws IOException {
+        return Manifest.read(directory).shards;
+    }
+
+    // One more than the generation in the directory's manifest, 1 when there is none
+    private static long nextGeneration(Path directory) throws IOException {
+        try {
+            return Manifest.read(directory).generation + 1;
+        } catch (NoSuchFileException e) {
+            return 1;
+        }
+    }
+
+    // Replaces the manifest atomically, then deletes the shard files the new one does not use
+    private static void publish(Path directory, int shards, long generation) throws IOException {
+        Path manifest = directory.resolve(MANIFEST_FILE);
+        Path temporary = directory.resolve(MANIFEST_FILE + ".tmp");
+        ByteBuffer content = ByteBuffer.wrap((shards + " " + generation).getBytes(StandardCharsets.US_ASCII));
+        try (FileChannel channel = FileChannel.open(temporary,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.WRITE)) {
+            while (content.hasRemaining()) {
+                channel.write(content);
+            }
+            channel.force(true);
+        }
+        // The new shard entries must be durable before the manifest names them,
+        // and the rename before the files it replaces are unlinked
+        forceDirectory(directory);
+        Files.move(temporary, manifest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        forceDirectory(directory);
+
+        Set<Path> current = new HashSet<>();
+        for (int shard = 0; shard < shards; shard++) {
+            current.add(shardFile(directory, generation, shard).getFileName());
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SHARD_GLOB)) {
+            for (Path file : files) {
+                if (!current.contains(file.getFileName())) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    // Flushes the directory's entries (creations, renames) to disk
+    private static void forceDirectory(Path directory) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (AccessDeniedException e) {
+            // Windows cannot open a directory as a channel, and makes its entries durable on its own
+        }
+    }
+
+    private static ExecutorService newPool(int shards) {
+        return Executors.newFixedThreadPool(Math.max(1, Math.min(shards, Runtime.getRuntime().availableProcessors())));
+    }
+
+    // "shards generation", or only "shards" for snapshots written before generations (generation 0)
+    private static final class Manifest {
+
+        private final int shards;
+        private final long generation;
+
+        private Manifest(int shards, long generation) {
+            this.shards = shards;
+            this.generation = generation;
+        }
+
+        private static Manifest read(Path directory) throws IOException {
+            Path manifest = directory.resolve(MANIFEST_FILE);
+            String content = Files.readString(manifest).trim();
+            String[] fields = content.split(" ");
+            try {
+                int shards = Integer.parseInt(fields[0]);
+                long generation = fields.length > 1 ? Long.parseLong(fields[1]) : 0;
+                if (shards <= 0 || generation < 0 || fields.length > 2) {
+                    throw new IOException("Invalid manifest " + manifest + ": " + content);
+                }
+                return new Manifest(shards, generation);
+            } catch (NumberFormatException e) {
+                throw new IOException("Invalid manifest " + manifest + ": " + content, e);
+            }
+        }
+    }
+
+    // Runs the tasks on the pool and returns their results in task order
+    private static <T> List<T> runAll(ExecutorService pool, List<Callable<T>> tasks) throws IOException {
+        List<Future<T>> futures = new ArrayList<>(tasks.size());
+        for (Callable<T> task : tasks) {
+            futures.add(pool.submit(task));
+        }
+        List<T> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while processing shards");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Shard task failed", cause);
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        return results;
+    }
+}
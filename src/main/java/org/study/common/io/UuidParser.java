@@ -0,0 +1,124 @@
+package org.study.common.io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Hex-decoding UUID parser that works directly on char or byte ranges.
+ * <p>
+ * The canonical 8-4-4-4-12 form is decoded straight into the two {@code long}s of
+ * the UUID, without the substrings and checks {@code UUID.fromString} performs.
+ * Other forms accepted by {@code UUID.fromString} fall back to it.
+ */
+public final class UuidParser {
+
+    public static final int CANONICAL_LENGTH = 36;
+
+    // Value of every ASCII hex digit, -1 for any other character
+    private static final byte[] HEX_VALUES = new byte[128];
+
+    static {
+        Arrays.fill(HEX_VALUES, (byte) -1);
+        for (int i = 0; i < 10; i++) {
+            HEX_VALUES['0' + i] = (byte) i;
+        }
+        for (int i = 0; i < 6; i++) {
+            HEX_VALUES['a' + i] = (byte) (10 + i);
+            HEX_VALUES['A' + i] = (byte) (10 + i);
+        }
+    }
+
+    private UuidParser() {
+    }
+
+    public static UUID parse(CharSequence source, int start, int end) {
+        if (end - start != CANONICAL_LENGTH) {
+            return UUID.fromString(source.subSequence(start, end).toString());
+        }
+        return new UUID(mostSignificantBits(source, start), leastSignificantBits(source, start));
+    }
+
+    public static UUID parse(byte[] source, int start, int end) {
+        if (end - start != CANONICAL_LENGTH) {
+            return UUID.fromString(new String(source, start, end - start, StandardCharsets.US_ASCII));
+        }
+        return new UUID(mostSignificantBits(source, start), leastSignificantBits(source, start));
+    }
+
+    // First 64 bits of the canonical UUID starting at offset: xxxxxxxx-xxxx-xxxx
+    public static long mostSignificantBits(CharSequence source, int offset) {
+        checkDashes(source.charAt(offset + 8), source.charAt(offset + 13), source.charAt(offset + 18),
+            source.charAt(offset + 23));
+        return hex(source, offset, offset + 8) << 32
+            | hex(source, offset + 9, offset + 13) << 16
+            | hex(source, offset + 14, offset + 18);
+    }
+
+    // Last 64 bits of the canonical UUID starting at offset: xxxx-xxxxxxxxxxxx
+    public static long leastSignificantBits(CharSequence source, int offset) {
+        return hex(source, offset + 19, offset + 23) << 48
+            | hex(source, offset + 24, offset + 36);
+    }
+
+    public static long mostSignificantBits(byte[] source, int offset) {
+        checkDashes((char) source[offset + 8], (char) source[offset + 13], (char) source[offset + 18],
+            (char) source[offset + 23]);
+        return hex(source, offset, offset + 8) << 32
+            | hex(source, offset + 9, offset + 13) << 16
+            | hex(source, offset + 14, offset + 18);
+    }
+
+    public static long leastSignificantBits(byte[] source, int offset) {
+        return hex(source, offset + 19, offset + 23) << 48
+            | hex(source, offset + 24, offset + 36);
+    }
+
+    // Non-throwing check of the canonical form, for callers that must not use exceptions as control flow
+    public static boolean isCanonical(CharSequence source, int start, int end) {
+        if (end - start != CANONICAL_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < CANONICAL_LENGTH; i++) {
+            char current = source.charAt(start + i);
+            if (i == 8 || i == 13 || i == 18 || i == 23) {
+                if (current != '-') {
+                    return false;
+                }
+            } else if (current >= HEX_VALUES.length || HEX_VALUES[current] < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long hex(CharSequence source, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value << 4 | digit(source.charAt(i));
+        }
+        return value;
+    }
+
+    private static long hex(byte[] source, int start, int end) {
+        long value = 0;
+        for (int i = start; i < end; i++) {
+            value = value << 4 | digit((char) (source[i] & 0xFF));
+        }
+        return value;
+    }
+
+    private static int digit(char current) {
+        int value = current < HEX_VALUES.length ? HEX_VALUES[current] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid UUID hex digit: '" + current + "'");
+        }
+        return value;
+    }
+
+    private static void checkDashes(char first, char second, char third, char fourth) {
+        if (first != '-' || second != '-' || third != '-' || fourth != '-') {
+            throw new IllegalArgumentException("UUID must be in the 8-4-4-4-12 format");
+        }
+    }
+}
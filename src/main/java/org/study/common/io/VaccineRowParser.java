@@ -0,0 +1,34 @@
+package org.study.common.io;
+
+import java.util.UUID;
+import org.study.common.model.animal.Vaccine;
+
+/**
+ * Parses vaccines.csv rows in a single pass: the vaccine columns and then the id of
+ * the animal it belongs to, from the same cursor. One instance is reused for every
+ * row of a load, together with the load's dictionaries, so it is not thread-safe.
+ */
+final class VaccineRowParser {
+
+    private final FieldCursor cursor = new FieldCursor(RegistryCsvParser.DELIMITER.charAt(0));
+    private final ColumnDictionaries dictionaries;
+    private UUID animalId;
+
+    VaccineRowParser(ColumnDictionaries dictionaries) {
+        this.dictionaries = dictionaries;
+    }
+
+    // The vaccine of the row; its animal id is then returned by animalId()
+    Vaccine parse(String line) {
+        RegistryCsvParser.checkColumns(cursor.reset(line), RegistryCsvParser.VACCINE_COLUMNS, line);
+        Vaccine vaccine = RegistryCsvParser.readVaccine(cursor, dictionaries);
+        animalId = cursor.nextUuid();
+        dictionaries.add(vaccine);
+        return vaccine;
+    }
+
+    // Animal id of the last row parsed
+    UUID animalId() {
+        return animalId;
+    }
+}
@@ -0,0 +1,218 @@
+package org.study.common.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.study.common.model.animal.Animal;
+import org.study.common.model.animal.Registry;
+import org.study.common.model.animal.Vaccine;
+
+/**
+ * Follows a vaccines.csv file that is being appended to and applies only the new rows.
+ * <p>
+ * The reader remembers the byte offset right after the last complete row it applied,
+ * so every {@link #poll()} costs time proportional to the appended data. A trailing
+ * row without its newline is left for the next poll. If the file shrinks (it was
+ * truncated) or is replaced by another file (its {@link BasicFileAttributes#fileKey()}
+ * changes), reading starts again from the beginning; rows whose vaccine id the animal
+ * already has are skipped, so rows seen before the rotation are not applied twice.
+ * <p>
+ * Rows are applied on the thread that calls {@code poll()} or {@code follow()}.
+ */
+public final class VaccineTailReader implements Closeable {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+    private static final byte NEW_LINE = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private final Path file;
+    private final Registry registry;
+    private final ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    // Only used inside poll(), which is synchronized; its brand dictionary lives as long as the reader
+    private final VaccineRowParser vaccineRows = new VaccineRowParser(new ColumnDictionaries());
+    private byte[] line = new byte[256];
+
+    private long offset;
+    // Identity of the file the offset belongs to, null until the first poll or where the file system has none
+    private Object fileKey;
+    private long appliedRows;
+    private long duplicateRows;
+    private long unknownAnimalRows;
+    private long malformedRows;
+    private volatile boolean closed;
+
+    public VaccineTailReader(Path file, Registry registry) {
+        this(file, registry, 0);
+    }
+
+    // Starts after startOffset, e.g. the size of the file when the registry was fully loaded
+    public VaccineTailReader(Path file, Registry registry, long startOffset) {
+        if (startOffset < 0) {
+            throw new IllegalArgumentException("Start offset cannot be negative");
+        }
+        this.file = file;
+        this.registry = registry;
+        this.offset = startOffset;
+    }
+
+    /**
+     * Applies the rows appended since the previous call.
+     *
+     * @return the number of vaccines added to the registry
+     */
+    public synchronized int poll() throws IOException {
+        try {
+            Object key = fileKey();
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                // Replaced while it was being opened: the channel may be either file, the next poll decides
+                if (!Objects.equals(key, fileKey())) {
+                    return 0;
+                }
+                return read(channel, key);
+            }
+        } catch (NoSuchFileException e) {
+            // The file is being rotated, the next poll will pick up the new one
+            return 0;
+        }
+    }
+
+    /**
+     * Polls every time the directory reports a change, and at least every
+     * {@code maxWait} because some file systems coalesce or miss watch events.
+     * Returns when the reader is closed or the thread is interrupted.
+     */
+    public void follow(Duration maxWait) throws IOException, InterruptedException {
+        Path directory = file.toAbsolutePath().getParent();
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            directory.register(watcher,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+            poll();
+            while (!closed) {
+                WatchKey key = watcher.poll(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+                if (key != null) {
+                    key.pollEvents();
+                    key.reset();
+                }
+                poll();
+            }
+        }
+    }
+
+    public synchronized long getOffset() {
+        return offset;
+    }
+
+    public synchronized long getAppliedRows() {
+        return appliedRows;
+    }
+
+    // Rows whose animal is not in the registry
+    public synchronized long getUnknownAnimalRows() {
+        return unknownAnimalRows;
+    }
+
+    public synchronized long getMalformedRows() {
+        return malformedRows;
+    }
+
+    // Rows whose vaccine the animal already had, e.g. read again after the file was rotated
+    public synchronized long getDuplicateRows() {
+        return duplicateRows;
+    }
+
+    // Stops follow() after its current wait, poll() can still be called
+    @Override
+    public void close() {
+        closed = true;
+    }
+
+    // Reads from offset, or from the start when the file shrank or is a different file
+    private int read(FileChannel channel, Object key) throws IOException {
+        long size = channel.size();
+        if (size < offset || (fileKey != null && !Objects.equals(fileKey, key))) {
+            offset = 0;
+        }
+        fileKey = key;
+        int applied = 0;
+        int length = 0;
+        long position = offset;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                byte current = buffer.get(i);
+                if (current != NEW_LINE) {
+                    if (length == line.length) {
+                        byte[] grown = new byte[line.length * 2];
+                        System.arraycopy(line, 0, grown, 0, length);
+                        line = grown;
+                    }
+                    line[length++] = current;
+                    continue;
+                }
+                applied += apply(line, length);
+                length = 0;
+                // Only complete rows move the offset forward
+                offset = position + i + 1;
+            }
+            position += read;
+        }
+        appliedRows += applied;
+        return applied;
+    }
+
+    // Identity of the file currently at the path, null where the file system has none
+    private Object fileKey() throws IOException {
+        return Files.readAttributes(file, BasicFileAttributes.class).fileKey();
+    }
+
+    private int apply(byte[] bytes, int length) {
+        if (length > 0 && bytes[length - 1] == CARRIAGE_RETURN) {
+            length--;
+        }
+        String row = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        if (row.isBlank()) {
+            return 0;
+        }
+        Vaccine vaccine;
+        UUID animalId;
+        try {
+            vaccine = vaccineRows.parse(row);
+            animalId = vaccineRows.animalId();
+        } catch (IllegalArgumentException e) {
+            malformedRows++;
+            return 0;
+        }
+        Animal animal = registry.findAnimal(animalId).orElse(null);
+        if (animal == null) {
+            unknownAnimalRows++;
+            return 0;
+        }
+        UUID vaccineId = vaccine.getID();
+        if (animal.anyVaccineMatch(existing -> existing.getID().equals(vaccineId))) {
+            duplicateRows++;
+            return 0;
+        }
+        animal.addVaccine(vaccine);
+        return 1;
+    }
+}
@@ -0,0 +1,267 @@
+package org.study.common.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import org.study.common.model.animal.Animal;
+import org.study.common.model.animal.Owner;
+import org.study.common.model.animal.OwnerValidator;
+import org.study.common.model.animal.OwnerValidator.Field;
+import org.study.common.model.animal.Vaccine;
+
+/**
+ * Validating ingestion mode for dirty registry feeds.
+ * <p>
+ * Every row is checked field by field with the non-throwing FieldCursor methods and
+ * the {@code isValid} rules of the model classes, and gets a {@link RowStatus}.
+ * Only rows that passed every check reach a model constructor, so no exception is
+ * created for a bad row. Rejected rows are written with their reason to a
+ * {@link RejectWriter} and every outcome is counted in {@link IngestCounters}.
+ * <p>
+ * An ingestor reuses its cursor and its {@link ColumnDictionaries}, which only
+ * receive the values of accepted rows, and must be used by one thread at a time.
+ */
+public final class ValidatingRegistryIngestor implements Closeable {
+
+    private final RejectWriter rejects;
+    private final IngestCounters counters = new IngestCounters();
+    private final FieldCursor cursor = new FieldCursor(RegistryCsvParser.DELIMITER.charAt(0));
+    private final ColumnDictionaries dictionaries = new ColumnDictionaries();
+
+    // rejects may be null, then rejected rows are only counted
+    public ValidatingRegistryIngestor(RejectWriter rejects) {
+        this.rejects = rejects;
+    }
+
+    public IngestCounters getCounters() {
+        return counters;
+    }
+
+    // Ingests every row of the file, returns how many were accepted
+    public long ingestAnimals(Path file, Consumer<? super Animal> accepted) throws IOException {
+        return ingest(file, line -> animalRow(line, accepted));
+    }
+
+    public long ingestOwners(Path file, Consumer<? super Owner> accepted) throws IOException {
+        return ingest(file, line -> ownerRow(line, accepted));
+    }
+
+    // The consumer receives the id of the animal each vaccine belongs to
+    public long ingestVaccines(Path file, BiConsumer<UUID, ? super Vaccine> accepted) throws IOException {
+        return ingest(file, line -> vaccineRow(line, accepted));
+    }
+
+    // id;name;age;{ownerId, ownerId}
+    public RowStatus animalRow(String line, Consumer<? super Animal> accepted) {
+        cursor.reset(line);
+        if (cursor.remainingFields() != RegistryCsvParser.ANIMAL_COLUMNS) {
+            return RowStatus.WRONG_FIELD_COUNT;
+        }
+        if (!cursor.tryNextUuid()) {
+            return RowStatus.INVALID_ID;
+        }
+        UUID id = new UUID(cursor.uuidMostSigBits(), cursor.uuidLeastSigBits());
+        String name = cursor.nextString();
+        if (name.isEmpty()) {
+            return RowStatus.EMPTY_FIELD;
+        }
+        if (!cursor.tryNextInt()) {
+            return RowStatus.INVALID_NUMBER;
+        }
+        int age = cursor.intValue();
+        if (!Animal.isValidAge(age)) {
+            return RowStatus.OUT_OF_RANGE;
+        }
+        cursor.advance();
+        int idSetStart = cursor.fieldStart();
+        int idSetEnd = cursor.fieldEnd();
+        if (!RegistryCsvParser.isValidIdSet(line, idSetStart, idSetEnd)) {
+            return RowStatus.INVALID_ID_SET;
+        }
+
+        Animal animal = new Animal(id, name, age);
+        RegistryCsvParser.forEachId(line, idSetStart, idSetEnd, animal::addOwnerId);
+        accepted.accept(animal);
+        return RowStatus.ACCEPTED;
+    }
+
+    // id;name;username;email;password;age;phone;address;city;state;country;zip;{animalId, animalId}
+    public RowStatus ownerRow(String line, Consumer<? super Owner> accepted) {
+        cursor.reset(line);
+        if (cursor.remainingFields() != RegistryCsvParser.OWNER_COLUMNS) {
+            return RowStatus.WRONG_FIELD_COUNT;
+        }
+        if (!cursor.tryNextUuid()) {
+            return RowStatus.INVALID_ID;
+        }
+        UUID id = new UUID(cursor.uuidMostSigBits(), cursor.uuidLeastSigBits());
+        String name = cursor.nextString();
+        String username = cursor.nextString();
+        String email = cursor.nextString();
+        String password = cursor.nextString();
+        if (!cursor.tryNextInt()) {
+            return RowStatus.INVALID_NUMBER;
+        }
+        int age = cursor.intValue();
+        String phone = cursor.nextString();
+        String address = cursor.nextString();
+        String city = cursor.nextKnownString(dictionaries.cities());
+        String state = cursor.nextKnownString(dictionaries.states());
+        String country = cursor.nextKnownString(dictionaries.countries());
+        String zip = cursor.nextString();
+        cursor.advance();
+        int idSetStart = cursor.fieldStart();
+        int idSetEnd = cursor.fieldEnd();
+
+        if (name.isEmpty() || username.isEmpty() || email.isEmpty() || password.isEmpty() || phone.isEmpty()
+            || address.isEmpty() || city.isEmpty() || state.isEmpty() || country.isEmpty() || zip.isEmpty()) {
+            return RowStatus.EMPTY_FIELD;
+        }
+        if (!Owner.isValidAge(age)) {
+            return RowStatus.OUT_OF_RANGE;
+        }
+        if (!Owner.isValidUsername(username) || !Owner.isValidEmail(email) || !Owner.isValidPassword(password)
+            || !Owner.isValidPhone(phone) || !Owner.isValidZip(zip)) {
+            return RowStatus.INVALID_FORMAT;
+        }
+        if (!RegistryCsvParser.isValidIdSet(line, idSetStart, idSetEnd)) {
+            return RowStatus.INVALID_ID_SET;
+        }
+
+        Owner owner = new Owner(id, name, username, email, password, age, phone, address, city, state, country, zip);
+        RegistryCsvParser.forEachId(line, idSetStart, idSetEnd, owner::addAnimalId);
+        dictionaries.add(owner);
+        accepted.accept(owner);
+        return RowStatus.ACCEPTED;
+    }
+
+    /**
+     * Validates a batch of owners.csv rows without building any Owner.
+     * <p>
+     * Unlike {@link #ownerRow}, which stops at the first problem, every field of every
+     * row is checked and all violations are collected. Nothing is counted in
+     * {@link #getCounters()} or written to the reject file.
+     */
+    public OwnerViolations validateOwners(List<String> lines) {
+        OwnerViolations violations = new OwnerViolations(lines.size());
+        for (String line : lines) {
+            violations.record(ownerViolations(line));
+        }
+        return violations;
+    }
+
+    // The OwnerValidator.Field bits of every invalid column of the row
+    public int ownerViolations(String line) {
+        cursor.reset(line);
+        if (cursor.remainingFields() != RegistryCsvParser.OWNER_COLUMNS) {
+            return Field.COLUMNS.mask();
+        }
+        int violations = cursor.tryNextUuid() ? 0 : Field.ID.mask();
+        String name = cursor.nextString();
+        String username = cursor.nextString();
+        String email = cursor.nextString();
+        String password = cursor.nextString();
+        // A non-numeric age is reported as an invalid age
+        boolean numericAge = cursor.tryNextInt();
+        int age = numericAge ? cursor.intValue() : OwnerValidator.MINIMUM_AGE;
+        if (!numericAge) {
+            violations |= Field.AGE.mask();
+        }
+        String phone = cursor.nextString();
+        String address = cursor.nextString();
+        // Plain Strings: validating a dirty batch must not grow the dictionaries
+        String city = cursor.nextString();
+        String state = cursor.nextString();
+        String country = cursor.nextString();
+        String zip = cursor.nextString();
+        cursor.advance();
+        if (!RegistryCsvParser.isValidIdSet(line, cursor.fieldStart(), cursor.fieldEnd())) {
+            violations |= Field.ANIMAL_IDS.mask();
+        }
+        return violations
+            | OwnerValidator.check(name, username, email, password, age, phone, address, city, state, country, zip);
+    }
+
+    // id;volumeInMl;brand;dd/MM/yyyy;animalId
+    public RowStatus vaccineRow(String line, BiConsumer<UUID, ? super Vaccine> accepted) {
+        cursor.reset(line);
+        if (cursor.remainingFields() != RegistryCsvParser.VACCINE_COLUMNS) {
+            return RowStatus.WRONG_FIELD_COUNT;
+        }
+        if (!cursor.tryNextUuid()) {
+            return RowStatus.INVALID_ID;
+        }
+        UUID id = new UUID(cursor.uuidMostSigBits(), cursor.uuidLeastSigBits());
+        if (!cursor.tryNextInt()) {
+            return RowStatus.INVALID_NUMBER;
+        }
+        int volumeInMl = cursor.intValue();
+        if (!Vaccine.isValidVolumeInMl(volumeInMl)) {
+            return RowStatus.OUT_OF_RANGE;
+        }
+        String brand = cursor.nextKnownString(dictionaries.brands());
+        if (brand.isEmpty()) {
+            return RowStatus.EMPTY_FIELD;
+        }
+        cursor.advance();
+        LocalDate dateOfApplication = RegistryCsvParser.parseDate(line, cursor.fieldStart(), cursor.fieldEnd());
+        if (dateOfApplication == null) {
+            return RowStatus.INVALID_DATE;
+        }
+        if (!cursor.tryNextUuid()) {
+            return RowStatus.INVALID_ID;
+        }
+        UUID animalId = new UUID(cursor.uuidMostSigBits(), cursor.uuidLeastSigBits());
+
+        Vaccine vaccine = new Vaccine(id, volumeInMl, brand, dateOfApplication);
+        dictionaries.add(vaccine);
+        accepted.accept(animalId, vaccine);
+        return RowStatus.ACCEPTED;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (rejects != null) {
+            rejects.close();
+        }
+    }
+
+    private long ingest(Path file, RowHandler handler) throws IOException {
+        String source = file.getFileName().toString();
+        long accepted = 0;
+        long lineNumber = 0;
+        try (Stream<String> lines = RegistryCsvLoader.lines(file, RegistryCsvLoader.DEFAULT_BUFFER_SIZE)) {
+            Iterator<String> iterator = lines.iterator();
+            while (iterator.hasNext()) {
+                String line = iterator.next();
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                RowStatus status = handler.handle(line);
+                counters.record(status);
+                if (status.isAccepted()) {
+                    accepted++;
+                } else if (rejects != null) {
+                    rejects.write(source, lineNumber, status, line);
+                }
+            }
+        }
+        if (rejects != null) {
+            rejects.flush();
+        }
+        return accepted;
+    }
+
+    @FunctionalInterface
+    private interface RowHandler {
+        RowStatus handle(String line);
+    }
+}
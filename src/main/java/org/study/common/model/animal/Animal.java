@@ -2,10 +2,13 @@ package org.study.common.model.animal;
 
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import org.study.common.collection.UuidSet;
 
 public class Animal implements Serializable {
 
@@ -15,7 +18,10 @@ public class Animal implements Serializable {
     private int age;
     private final List<Vaccine> vaccines; // A list to store associated vaccines
 
-    private Set<UUID> ownerIds;
+    private final UuidSet ownerIds; // Flat long[] set, no node or UUID object per id
+
+    // Read-only wrapper created on first use, so reading it costs no copy
+    private transient List<Vaccine> vaccinesView;
 
     // Constants
     private final static int MINIMUM_AGE = 0; // Minimum allowed age
@@ -33,15 +39,50 @@ public class Animal implements Serializable {
         this.name = name;
         this.age = age;
         this.vaccines = new ArrayList<>(); // Initialize the vaccines list as an empty ArrayList
-        this.ownerIds = new HashSet<>();
+        this.ownerIds = new UuidSet();
+    }
+
+    // Constructor with an already parsed UUID (Constructor Overloading)
+    // Bulk loaders decode ids straight from the file, so they skip UUID.fromString here.
+    public Animal(UUID id, String name, int age) {
+        validateConstructor(id, name, age); // Validate the provided parameters
+
+        this.id = id;
+        this.name = name;
+        this.age = age;
+        this.vaccines = new ArrayList<>();
+        this.ownerIds = new UuidSet();
     }
 
     public void addOwnerId(UUID owner) {
         ownerIds.add(owner);
     }
 
+    public void removeOwnerId(UUID owner) {
+        ownerIds.remove(owner);
+    }
+
+    public boolean hasOwner(UUID owner) {
+        return ownerIds.contains(owner);
+    }
+
     public Set<UUID> getOwnerIds() {
-        return new HashSet<>(ownerIds);
+        return ownerIds.toSet();
+    }
+
+    // Read-only view of the owner ids: it follows later changes and cannot be modified
+    public Set<UUID> ownerIdsView() {
+        return ownerIds.asSet();
+    }
+
+    // Visits every owner id without copying the set, used by bulk exporters
+    public void forEachOwnerId(Consumer<UUID> action) {
+        ownerIds.forEach(action);
+    }
+
+    // Same, with the two halves of each id: no UUID object is created
+    public void forEachOwnerIdBits(UuidSet.BitsConsumer action) {
+        ownerIds.forEachBits(action);
     }
 
     private void validateConstructor(String id, String name, int age) {
@@ -52,6 +93,17 @@ public class Animal implements Serializable {
 
     }
 
+    private void validateConstructor(UUID id, String name, int age) {
+
+        // Step 1: Check if the provided id is null
+        if (id == null) {
+            throw new IllegalArgumentException("Id cannot be null");
+        }
+        validateName(name); // Validate the provided name
+        validateAge(age); // Validate the provided age
+
+    }
+
     private void validateConstructor(String name, int age) {
 
         validateName(name); // Validate the provided name
@@ -85,9 +137,14 @@ public class Animal implements Serializable {
 
     }
 
+    // Non-throwing check, used by bulk ingestion to reject rows without exceptions
+    public static boolean isValidAge(int age) {
+        return age >= MINIMUM_AGE;
+    }
+
     private void validateAge(int age) {
         // Step 1: Check if the provided age is less than the minimum allowed age
-        if (age < MINIMUM_AGE) {
+        if (!isValidAge(age)) {
             throw new IllegalArgumentException("Age cannot be less than " + MINIMUM_AGE);
         }
 
@@ -103,6 +160,7 @@ public class Animal implements Serializable {
         this.name = name;
         this.age = age;
         this.vaccines = new ArrayList<>();
+        this.ownerIds = new UuidSet();
     }
 
 
@@ -116,6 +174,7 @@ public class Animal implements Serializable {
         this.name = DEFAULT_NAME;
         this.age = MINIMUM_AGE;
         this.vaccines = new ArrayList<>();
+        this.ownerIds = new UuidSet();
     }
 
 
@@ -125,6 +184,14 @@ public class Animal implements Serializable {
         this.vaccines.add(vaccine); // Add the vaccine to the list
     }
 
+    // Method to add an already built vaccine, e.g. one loaded from vaccines.csv
+    public void addVaccine(Vaccine vaccine) {
+        if (vaccine == null) {
+            throw new IllegalArgumentException("Vaccine cannot be null");
+        }
+        this.vaccines.add(vaccine);
+    }
+
     public boolean addVaccines(List<Vaccine> vaccines) {
         return this.vaccines.addAll(vaccines);
     }
@@ -140,6 +207,55 @@ public class Animal implements Serializable {
         return new ArrayList<>(vaccines); // Return a copy of the vaccines list to prevent external modification
     }
 
+    // Read-only view of the vaccines, for callers that only read them: no copy per call
+    public List<Vaccine> vaccinesView() {
+        if (vaccinesView == null) {
+            vaccinesView = Collections.unmodifiableList(vaccines);
+        }
+        return vaccinesView;
+    }
+
+    public int vaccineCount() {
+        return vaccines.size();
+    }
+
+    // Visits every vaccine in order of application without copying the list or creating an iterator
+    public void forEachVaccine(Consumer<? super Vaccine> action) {
+        for (int i = 0; i < vaccines.size(); i++) {
+            action.accept(vaccines.get(i));
+        }
+    }
+
+    // Batch expiry: one reference day for every vaccine, compared with the precomputed next application day
+    public boolean hasExpiredVaccine(long referenceEpochDay) {
+        for (int i = 0; i < vaccines.size(); i++) {
+            if (vaccines.get(i).isExpiredOn(referenceEpochDay)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int countExpiredVaccines(long referenceEpochDay) {
+        int expired = 0;
+        for (int i = 0; i < vaccines.size(); i++) {
+            if (vaccines.get(i).isExpiredOn(referenceEpochDay)) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    // True if any vaccine matches, stops at the first one. Allocates nothing
+    public boolean anyVaccineMatch(Predicate<? super Vaccine> condition) {
+        for (int i = 0; i < vaccines.size(); i++) {
+            if (condition.test(vaccines.get(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // Getter method to retrieve the name of the animal
     public String getName() {
         return this.name;
@@ -178,11 +294,12 @@ public class Animal implements Serializable {
     }
 
     public String toCSV(String delimiter) {
-        String[] ownerIdsArray = this.ownerIds.stream()
-            .map(UUID::toString)
-            .toArray(String[]::new);
-        String ownerIds = "{" + String.join(",",ownerIdsArray ) + "}";
-        return id + delimiter + name + delimiter + age + delimiter + ownerIds ;
+        StringBuilder row = new StringBuilder(64 + ownerIds.size() * 37)
+            .append(id).append(delimiter)
+            .append(name).append(delimiter)
+            .append(age).append(delimiter)
+            .append('{');
+        return ownerIds.appendTo(row, ",").append('}').toString();
     }
 
 }
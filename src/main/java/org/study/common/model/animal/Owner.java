@@ -4,20 +4,11 @@ import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.Consumer;
+import org.study.common.collection.UuidSet;
 
 public class Owner implements Serializable {
-    private static final String PASSWORD_PATTERN = "^(?=.*?[A-Z])(?=.*?[a-z])(?=.*?[0-9])(?=.*?[#?!@$ %^&*-]).{8,}$";
-
-    private final static int MINIMUM_AGE = 18; // Minimum allowed age
-
-    private static final String EMAIL_PATTERN = "[^@ \\t\\r\\n]+@[^@ \\t\\r\\n]+\\.[^@ \\t\\r\\n]++";
-
-    private static final String PHONE_PATTERN = "^[0-9]{10}$";
-
-    //ZIP CODE REGEX: https://stackoverflow.com/questions/578406/what-is-the-ultimate-postal-code-and-zip-regex
-    private static final String ZIP_PATTERN = "^[0-9]{5}(?:-[0-9]{4})?$";
-
-    private static final String USERNAME_PATTERN = "^[a-zA-Z][a-zA-Z0-9_]{7,30}$";
+    private final static int MINIMUM_AGE = OwnerValidator.MINIMUM_AGE; // Minimum allowed age
 
     // Attributes of the Owner class
     private UUID id;
@@ -34,7 +25,7 @@ public class Owner implements Serializable {
     private String zip;
     private String country;
 
-    List<UUID> animalIds;
+    final UuidSet animalIds; // Flat long[] set, no node or UUID object per id
 
 
     public Owner (String id,
@@ -76,7 +67,51 @@ public class Owner implements Serializable {
         this.state = state;
         this.zip = zip;
         this.country = country;
-        this.animalIds = new ArrayList<>();
+        this.animalIds = new UuidSet();
+    }
+
+
+    // Constructor with an already parsed UUID, used by bulk loaders to skip UUID.fromString
+    public Owner(UUID id,
+                 String name,
+                 String username,
+                 String email,
+                 String password,
+                 int age,
+                 String phone,
+                 String address,
+                 String city,
+                 String state,
+                 String country,
+                 String zip) {
+
+        validateId(id); // Validate the provided UUID
+        validateConstructor(
+            name,
+            username,
+            email,
+            password,
+            age,
+            phone,
+            address,
+            city,
+            state,
+            zip,
+            country);
+
+        this.id = id;
+        this.name = name;
+        this.username = username;
+        this.email = email;
+        this.password = password;
+        this.age = age;
+        this.phone = phone;
+        this.address = address;
+        this.city = city;
+        this.state = state;
+        this.zip = zip;
+        this.country = country;
+        this.animalIds = new UuidSet();
     }
 
 
@@ -117,7 +152,7 @@ public class Owner implements Serializable {
         this.state = state;
         this.zip = zip;
         this.country = country;
-        this.animalIds = new ArrayList<>();
+        this.animalIds = new UuidSet();
     }
 
     private void validateConstructor(String id,
@@ -176,9 +211,38 @@ public class Owner implements Serializable {
 
     }
 
+    // Non-throwing checks, used by bulk ingestion to reject rows without exceptions.
+    // They apply exactly the rules of the validate methods below, with the
+    // hand-written matchers of OwnerValidator instead of String.matches.
+
+    public static boolean isValidAge(int age) {
+        return OwnerValidator.isValidAge(age);
+    }
+
+    public static boolean isValidUsername(String username) {
+        return OwnerValidator.isValidUsername(username);
+    }
+
+    public static boolean isValidEmail(String email) {
+        return OwnerValidator.isValidEmail(email);
+    }
+
+    // Same rule validatePassword applies: a value matching the password pattern is rejected
+    public static boolean isValidPassword(String password) {
+        return OwnerValidator.isValidPassword(password);
+    }
+
+    public static boolean isValidPhone(String phone) {
+        return OwnerValidator.isValidPhone(phone);
+    }
+
+    public static boolean isValidZip(String zip) {
+        return OwnerValidator.isValidZip(zip);
+    }
+
     private void validateAge(int age) {
         // Step 1: Check if the provided age is less than the minimum allowed age
-        if (age < MINIMUM_AGE) {
+        if (!isValidAge(age)) {
             throw new IllegalArgumentException("Age cannot be less than " + MINIMUM_AGE);
         }
     }
@@ -196,7 +260,7 @@ public class Owner implements Serializable {
         }
 
         // Step 3: Check if the provided username is in the correct format
-        if (!username.matches(USERNAME_PATTERN)) {
+        if (!isValidUsername(username)) {
             throw new IllegalArgumentException("Username must be in the appropriate format");
         }
     }
@@ -214,6 +278,13 @@ public class Owner implements Serializable {
 
     }
 
+    private void validateId(UUID id) {
+        // Step 1: Check if the provided id is null
+        if (id == null) {
+            throw new IllegalArgumentException("Id cannot be null");
+        }
+    }
+
     private void validateName(String name) {
         // Step 1: Check if the provided name is null
         if (name == null) {
@@ -238,7 +309,7 @@ public class Owner implements Serializable {
         }
 
         // Step 3: Check if the provided email is in the correct format
-        if (!email.matches(EMAIL_PATTERN)) {
+        if (!isValidEmail(email)) {
             throw new IllegalArgumentException("Email must be in the appropriate format");
         }
     }
@@ -255,7 +326,7 @@ public class Owner implements Serializable {
         }
 
         // Step 3: Check if the provided phone is in the correct format
-        if (!phone.matches(PHONE_PATTERN)) {
+        if (!isValidPhone(phone)) {
             throw new IllegalArgumentException("Phone must be in the appropriate format");
         }
     }
@@ -272,7 +343,7 @@ public class Owner implements Serializable {
         }
 
         // Step 3: Check if the provided password is less than 8 characters and includes at least one number and one letter and one special character and one uppercase letter
-        if (password.matches(PASSWORD_PATTERN)) {
+        if (!isValidPassword(password)) {
             throw new IllegalArgumentException(
                 """
                     At least one upper case English letter
@@ -332,7 +403,7 @@ public class Owner implements Serializable {
         }
 
         // Step 3: Check if the provided zip is in the correct format
-        if (!zip.matches(ZIP_PATTERN)) {
+        if (!isValidZip(zip)) {
             throw new IllegalArgumentException("Zip must be in the appropriate format");
         }
     }
@@ -393,7 +464,23 @@ public class Owner implements Serializable {
     }
 
     public List<UUID> getAnimalIds() {
-        return new ArrayList<>(animalIds);
+        List<UUID> copy = new ArrayList<>(animalIds.size());
+        animalIds.forEach(copy::add);
+        return copy;
+    }
+
+    // Visits every animal id without copying the set, used by bulk exporters
+    public void forEachAnimalId(Consumer<UUID> action) {
+        animalIds.forEach(action);
+    }
+
+    // Same, with the two halves of each id: no UUID object is created
+    public void forEachAnimalIdBits(UuidSet.BitsConsumer action) {
+        animalIds.forEachBits(action);
+    }
+
+    public boolean hasAnimal(UUID animal) {
+        return animalIds.contains(animal);
     }
 
     public String getUsername() {
@@ -466,6 +553,7 @@ public class Owner implements Serializable {
         return age;
     }
 
+    // An id that is already listed is not added twice
     public void addAnimalId(UUID animal) {
         animalIds.add(animal);
 
@@ -494,10 +582,9 @@ public class Owner implements Serializable {
     }
 
     public String toCSV(String delimiter) {
-        String[] animalIdsArray = this.animalIds.stream()
-            .map(UUID::toString)
-            .toArray(String[]::new);
-        String animalIds = "{" + String.join(",",animalIdsArray ) + "}";
+        String animalIds = this.animalIds.appendTo(new StringBuilder(2 + this.animalIds.size() * 37).append('{'), ",")
+            .append('}')
+            .toString();
         return
             id + delimiter +
             name + delimiter +
@@ -0,0 +1,251 @@
+package org.study.common.model.animal;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Owner field rules as hand-written matchers, plus a check that reports every
+ * invalid field of a row at once instead of throwing on the first one.
+ * <p>
+ * Each matcher accepts exactly the strings its original regular expression accepted
+ * with {@code String.matches} (quoted above it), but scans the characters once and
+ * compiles nothing. Owner's {@code isValid} methods and constructors use them.
+ */
+public final class OwnerValidator {
+
+    public static final int MINIMUM_AGE = 18;
+
+    /**
+     * The columns of an owners.csv row. {@link #mask()} is the bit of the field in the
+     * value returned by {@link #check}.
+     */
+    public enum Field {
+        COLUMNS("Unexpected number of columns"),
+        ID("Id must be a UUID"),
+        NAME("Name cannot be empty"),
+        USERNAME("Username must be in the appropriate format"),
+        EMAIL("Email must be in the appropriate format"),
+        PASSWORD("Password does not follow the password rules"),
+        AGE("Age cannot be less than " + MINIMUM_AGE),
+        PHONE("Phone must be in the appropriate format"),
+        ADDRESS("Address cannot be empty"),
+        CITY("City cannot be empty"),
+        STATE("State cannot be empty"),
+        COUNTRY("Country cannot be empty"),
+        ZIP("Zip must be in the appropriate format"),
+        ANIMAL_IDS("Animal ids are not a {...} list of UUIDs");
+
+        private final String message;
+
+        Field(String message) {
+            this.message = message;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public int mask() {
+            return 1 << ordinal();
+        }
+    }
+
+    private OwnerValidator() {
+    }
+
+    /**
+     * Checks every field with the rules of the Owner constructor.
+     *
+     * @return the {@link Field#mask()} bits of the invalid fields, 0 when all are valid
+     */
+    public static int check(String name,
+                            String username,
+                            String email,
+                            String password,
+                            int age,
+                            String phone,
+                            String address,
+                            String city,
+                            String state,
+                            String country,
+                            String zip) {
+        int violations = 0;
+        if (isEmpty(name)) {
+            violations |= Field.NAME.mask();
+        }
+        if (!isValidUsername(username)) {
+            violations |= Field.USERNAME.mask();
+        }
+        if (!isValidEmail(email)) {
+            violations |= Field.EMAIL.mask();
+        }
+        if (!isValidPassword(password)) {
+            violations |= Field.PASSWORD.mask();
+        }
+        if (!isValidAge(age)) {
+            violations |= Field.AGE.mask();
+        }
+        if (!isValidPhone(phone)) {
+            violations |= Field.PHONE.mask();
+        }
+        if (isEmpty(address)) {
+            violations |= Field.ADDRESS.mask();
+        }
+        if (isEmpty(city)) {
+            violations |= Field.CITY.mask();
+        }
+        if (isEmpty(state)) {
+            violations |= Field.STATE.mask();
+        }
+        if (isEmpty(country)) {
+            violations |= Field.COUNTRY.mask();
+        }
+        if (!isValidZip(zip)) {
+            violations |= Field.ZIP.mask();
+        }
+        return violations;
+    }
+
+    // The fields whose bits are set in a value returned by check
+    public static Set<Field> fields(int violations) {
+        Set<Field> fields = EnumSet.noneOf(Field.class);
+        for (Field field : Field.values()) {
+            if ((violations & field.mask()) != 0) {
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    public static boolean isValidAge(int age) {
+        return age >= MINIMUM_AGE;
+    }
+
+    // ^[a-zA-Z][a-zA-Z0-9_]{7,30}$
+    public static boolean isValidUsername(CharSequence username) {
+        if (username == null || username.length() < 8 || username.length() > 31) {
+            return false;
+        }
+        if (!isAsciiLetter(username.charAt(0))) {
+            return false;
+        }
+        for (int i = 1; i < username.length(); i++) {
+            char c = username.charAt(i);
+            if (!isAsciiLetter(c) && !isDigit(c) && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // [^@ \t\r\n]+@[^@ \t\r\n]+\.[^@ \t\r\n]++
+    // One '@' with text on both sides, and a '.' after the '@' that is neither the
+    // first nor the last character of the domain
+    public static boolean isValidEmail(CharSequence email) {
+        if (email == null) {
+            return false;
+        }
+        int length = email.length();
+        int at = -1;
+        boolean dot = false;
+        for (int i = 0; i < length; i++) {
+            char c = email.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+                return false;
+            }
+            if (c == '@') {
+                if (at >= 0) {
+                    return false;
+                }
+                at = i;
+            } else if (c == '.' && at >= 0 && i > at + 1 && i < length - 1) {
+                dot = true;
+            }
+        }
+        return at > 0 && dot;
+    }
+
+    // Owner rejects the passwords that match this pattern, so the result is inverted:
+    // ^(?=.*?[A-Z])(?=.*?[a-z])(?=.*?[0-9])(?=.*?[#?!@$ %^&*-]).{8,}$
+    public static boolean isValidPassword(CharSequence password) {
+        return password != null && password.length() > 0 && !matchesPasswordPattern(password);
+    }
+
+    // ^[0-9]{10}$
+    public static boolean isValidPhone(CharSequence phone) {
+        return phone != null && phone.length() == 10 && isDigits(phone, 0, 10);
+    }
+
+    // ZIP CODE REGEX: https://stackoverflow.com/questions/578406/what-is-the-ultimate-postal-code-and-zip-regex
+    // ^[0-9]{5}(?:-[0-9]{4})?$
+    public static boolean isValidZip(CharSequence zip) {
+        if (zip == null) {
+            return false;
+        }
+        if (zip.length() == 5) {
+            return isDigits(zip, 0, 5);
+        }
+        return zip.length() == 10 && isDigits(zip, 0, 5) && zip.charAt(5) == '-' && isDigits(zip, 6, 10);
+    }
+
+    private static boolean matchesPasswordPattern(CharSequence password) {
+        boolean upper = false;
+        boolean lower = false;
+        boolean digit = false;
+        boolean special = false;
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            // '.' does not match line terminators, so they make the whole pattern fail
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+            upper |= c >= 'A' && c <= 'Z';
+            lower |= c >= 'a' && c <= 'z';
+            digit |= isDigit(c);
+            special |= isPasswordSpecial(c);
+        }
+        // .{8,} counts code points, a surrogate pair is one character
+        return upper && lower && digit && special
+            && Character.codePointCount(password, 0, password.length()) >= 8;
+    }
+
+    private static boolean isPasswordSpecial(char c) {
+        switch (c) {
+            case '#':
+            case '?':
+            case '!':
+            case '@':
+            case '$':
+            case ' ':
+            case '%':
+            case '^':
+            case '&':
+            case '*':
+            case '-':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isEmpty(String value) {
+        return value == null || value.isEmpty();
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isDigits(CharSequence value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
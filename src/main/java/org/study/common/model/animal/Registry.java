@@ -0,0 +1,118 @@
+package org.study.common.model.animal;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * In-memory registry of animals and owners indexed by id.
+ * Vaccines are reached through the animal they were applied to.
+ */
+public class Registry {
+
+    // LinkedHashMap keeps the order in which records were added (i.e. file order)
+    private final Map<UUID, Animal> animals;
+    private final Map<UUID, Owner> owners;
+
+    public Registry() {
+        this(16, 16);
+    }
+
+    // Pre-sizing avoids rehashing the tables while a large registry is loaded
+    public Registry(int expectedAnimals, int expectedOwners) {
+        this.animals = new LinkedHashMap<>(capacityFor(expectedAnimals));
+        this.owners = new LinkedHashMap<>(capacityFor(expectedOwners));
+    }
+
+    // Adds the animal and returns the one previously registered with the same id, if any
+    public Optional<Animal> addAnimal(Animal animal) {
+        return Optional.ofNullable(animals.put(animal.getId(), animal));
+    }
+
+    public Optional<Owner> addOwner(Owner owner) {
+        return Optional.ofNullable(owners.put(owner.getId(), owner));
+    }
+
+    public Optional<Animal> findAnimal(UUID id) {
+        return Optional.ofNullable(animals.get(id));
+    }
+
+    public Optional<Owner> findOwner(UUID id) {
+        return Optional.ofNullable(owners.get(id));
+    }
+
+    // Read-only views, they are not copied because a registry can hold millions of records
+    public Collection<Animal> getAnimals() {
+        return Collections.unmodifiableCollection(animals.values());
+    }
+
+    public Collection<Owner> getOwners() {
+        return Collections.unmodifiableCollection(owners.values());
+    }
+
+    public int animalCount() {
+        return animals.size();
+    }
+
+    public int ownerCount() {
+        return owners.size();
+    }
+
+    // Batch expiry: the reference date is converted once, then every vaccine is one int comparison
+
+    // Animals with at least one vaccine expired on the reference date, in registry order
+    public List<Animal> findOverdueAnimals(LocalDate reference) {
+        long referenceDay = reference.toEpochDay();
+        List<Animal> overdue = new ArrayList<>();
+        for (Animal animal : animals.values()) {
+            if (animal.hasExpiredVaccine(referenceDay)) {
+                overdue.add(animal);
+            }
+        }
+        return overdue;
+    }
+
+    public long countExpiredVaccines(LocalDate reference) {
+        long referenceDay = reference.toEpochDay();
+        long expired = 0;
+        for (Animal animal : animals.values()) {
+            expired += animal.countExpiredVaccines(referenceDay);
+        }
+        return expired;
+    }
+
+    // Number of vaccines per brand, indexed by VaccineBrands code: an array instead of a map
+    public long[] countVaccinesByBrand() {
+        return countVaccinesByBrand(animals.values());
+    }
+
+    /**
+     * Same count over any animals. Brands registered while counting (by another thread,
+     * or a setBrand on a shared vaccine) grow the array, so it can be longer than the
+     * {@link VaccineBrands#size()} read before the call.
+     */
+    public static long[] countVaccinesByBrand(Iterable<? extends Animal> animals) {
+        long[] counts = new long[VaccineBrands.size()];
+        for (Animal animal : animals) {
+            for (Vaccine vaccine : animal.vaccinesView()) {
+                int code = vaccine.getBrandCode();
+                if (code >= counts.length) {
+                    counts = Arrays.copyOf(counts, Math.max(code + 1, VaccineBrands.size()));
+                }
+                counts[code]++;
+            }
+        }
+        return counts;
+    }
+
+    private static int capacityFor(int expectedSize) {
+        return (int) Math.min(Integer.MAX_VALUE, expectedSize * 4L / 3 + 1);
+    }
+}
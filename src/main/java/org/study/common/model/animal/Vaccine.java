@@ -1,5 +1,7 @@
 package org.study.common.model.animal;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.text.ParseException;
 import java.time.LocalDate;
@@ -18,6 +20,13 @@ public class Vaccine implements Serializable {
     // Reference: https://docs.oracle.com/javase/8/docs/api/java/time/LocalDate.html
     private LocalDate dateOfApplication;
 
+    // dateOfApplication plus six months as an epoch day, computed once when the date is set
+    // so expiry checks compare two ints instead of reading the clock and building dates
+    private transient int nextApplicationEpochDay;
+
+    // Code of the brand in VaccineBrands, resolved once so brand filters compare ints
+    private transient int brandCode;
+
     // Reference: https://www.geeksforgeeks.org/static-keyword-java/
     // Reference: https://www.geeksforgeeks.org/final-keyword-java/
     // Reference: https://www.baeldung.com/java-static
@@ -41,12 +50,29 @@ public class Vaccine implements Serializable {
         // Step 2: Set the 'volumeInMl' and 'brand' attributes based on the provided parameters.
         this.volumeInMl = volumeInMl;
         this.brand = brand;
+        this.brandCode = VaccineBrands.code(brand);
 
         // Step 3: Parse the 'dateOfApplication' string into a LocalDate using LocalDate.parse().
         // The date format is defined in DATE_FORMAT, and it's used to parse the string into a date object.
         // The parsed date is assigned to the 'dateOfApplication' attribute.
         // Reference: https://www.geeksforgeeks.org/localdate-parse-method-in-java-with-examples/
         this.dateOfApplication = LocalDate.parse(dateOfApplication, DATE_FORMAT);
+        this.nextApplicationEpochDay = nextApplicationEpochDay(this.dateOfApplication);
+    }
+
+
+
+    // Constructor 4: Takes an already parsed UUID and date (overloaded)
+    // Bulk loaders decode ids and dates straight from the file, so nothing is parsed twice here.
+    public Vaccine(UUID id, int volumeInMl, String brand, LocalDate dateOfApplication) {
+        validateConstructor(id, volumeInMl, brand, dateOfApplication);
+
+        this.id = id;
+        this.volumeInMl = volumeInMl;
+        this.brand = brand;
+        this.brandCode = VaccineBrands.code(brand);
+        this.dateOfApplication = dateOfApplication;
+        this.nextApplicationEpochDay = nextApplicationEpochDay(this.dateOfApplication);
     }
 
 
@@ -60,10 +86,12 @@ public class Vaccine implements Serializable {
         this.id = UUID.randomUUID();
         this.volumeInMl = volumeInMl;
         this.brand = brand;
+        this.brandCode = VaccineBrands.code(brand);
 
         // Step 2: Set the 'dateOfApplication' to the current date using LocalDate.now().
         // This constructor assumes that the date of application is the current date.
         this.dateOfApplication = LocalDate.now();
+        this.nextApplicationEpochDay = nextApplicationEpochDay(this.dateOfApplication);
     }
 
 
@@ -76,6 +104,7 @@ public class Vaccine implements Serializable {
         this.id = UUID.randomUUID();
         this.volumeInMl = volumeInMl;
         this.brand = brand;
+        this.brandCode = VaccineBrands.code(brand);
 
         // Step 2: Parse the 'dateOfApplication' string into a LocalDate using LocalDate.parse().
         // The date format is defined in DATE_FORMAT, and it's used to parse the string into a date object.
@@ -83,6 +112,7 @@ public class Vaccine implements Serializable {
         // Reference: https://www.geeksforgeeks.org/localdate-parse-method-in-java-with-examples/
         // Note: This constructor can throw a ParseException if the date string is not in the expected format.
         this.dateOfApplication = LocalDate.parse(dateOfApplication, DATE_FORMAT);
+        this.nextApplicationEpochDay = nextApplicationEpochDay(this.dateOfApplication);
     }
 
     private void validateConstructor(String id, int volumeInMl, String brand, String dateOfApplication) {
@@ -94,6 +124,19 @@ public class Vaccine implements Serializable {
 
     }
 
+    private void validateConstructor(UUID id, int volumeInMl, String brand, LocalDate dateOfApplication) {
+
+        if (id == null) {
+            throw new IllegalArgumentException("Id cannot be null");
+        }
+        validateVolumeInMl(volumeInMl);
+        validateBrand(brand);
+        if (dateOfApplication == null) {
+            throw new IllegalArgumentException("Date of application cannot be null");
+        }
+
+    }
+
     private void validateConstructor(int volumeInMl, String brand) {
         validateVolumeInMl(volumeInMl);
         validateBrand(brand);
@@ -139,9 +182,14 @@ public class Vaccine implements Serializable {
         }
     }
 
+    // Non-throwing check, used by bulk ingestion to reject rows without exceptions
+    public static boolean isValidVolumeInMl(int volumeInMl) {
+        return volumeInMl >= 0;
+    }
+
     private void validateVolumeInMl(int volumeInMl) {
 
-        if( volumeInMl < 0) {
+        if (!isValidVolumeInMl(volumeInMl)) {
             throw new IllegalArgumentException("Volume in ml cannot be negative or zero");
         }
 
@@ -163,10 +211,16 @@ public class Vaccine implements Serializable {
         return brand;
     }
 
+    // Same code for brands that are equal ignoring case, see VaccineBrands
+    public int getBrandCode() {
+        return brandCode;
+    }
+
     public void setBrand(String brand) {
 
         validateBrand(brand);
         this.brand = brand;
+        this.brandCode = VaccineBrands.code(brand);
     }
 
     public LocalDate getDateOfApplication() {
@@ -174,7 +228,11 @@ public class Vaccine implements Serializable {
     }
 
     public void setDateOfApplication(LocalDate dateOfApplication) {
+        if (dateOfApplication == null) {
+            throw new IllegalArgumentException("Date of application cannot be null");
+        }
         this.dateOfApplication = dateOfApplication;
+        this.nextApplicationEpochDay = nextApplicationEpochDay(this.dateOfApplication);
     }
 
     public UUID getID() {
@@ -188,20 +246,68 @@ public class Vaccine implements Serializable {
         LocalDate currentDate = LocalDate.now();
 
         // Step 2: Check if the current date is after the date of the next application.
-        // The isAfter() method of LocalDate is used to compare two LocalDate objects.
-        // It returns true if the current date is chronologically after the dateOfNextApplication.
         // In this context, if the current date is later than the dateOfNextApplication,
         // it means the vaccine has expired.
-        //https://www.geeksforgeeks.org/localdate-isafter-method-in-java-with-examples/
-        return currentDate.isAfter(vaccine.getDateOfNextApplication());
+        // To check many vaccines, read the clock once and call isExpiredOn for each of them instead.
+        return vaccine.isExpiredOn(currentDate.toEpochDay());
+    }
+
+    // Same rule as isVaccineExpired, against a reference date given as an epoch day
+    public boolean isExpiredOn(long referenceEpochDay) {
+        return referenceEpochDay > nextApplicationEpochDay;
+    }
+
+    public boolean isExpiredOn(LocalDate referenceDate) {
+        return isExpiredOn(referenceDate.toEpochDay());
+    }
+
+    public int getNextApplicationEpochDay() {
+        return nextApplicationEpochDay;
     }
+
     public ChronoLocalDate getDateOfNextApplication() {
         // Step 1: Calculate the date of the next application.
         // The date of the next application is obtained by adding six months to the
-        // date of the current application (dateOfApplication).
-        // The plusMonths() method is used to add a specified number of months to a date.
-        // In this case, SIX_MONTHS (a constant representing six months) is added.
-        return this.dateOfApplication.plusMonths(SIX_MONTHS);
+        // date of the current application (dateOfApplication). It is computed once,
+        // when the date of application is set, and kept as an epoch day.
+        return LocalDate.ofEpochDay(nextApplicationEpochDay);
+    }
+
+    /**
+     * First date of application, as an epoch day, whose vaccine is not expired on the
+     * reference date: a vaccine applied on day {@code d} is expired exactly when
+     * {@code d < expiryThreshold(reference)}.
+     * <p>
+     * Adding months is monotonic but not a fixed number of days (31/08 and 29/08 both
+     * reach the end of February), so the threshold is searched around
+     * {@code reference - 6 months}. Columns of application days can then be checked
+     * with one int comparison per vaccine.
+     */
+    public static int expiryThreshold(LocalDate reference) {
+        long referenceDay = reference.toEpochDay();
+        long threshold = reference.minusMonths(SIX_MONTHS).toEpochDay();
+        while (nextApplicationEpochDay(LocalDate.ofEpochDay(threshold - 1)) >= referenceDay) {
+            threshold--;
+        }
+        while (nextApplicationEpochDay(LocalDate.ofEpochDay(threshold)) < referenceDay) {
+            threshold++;
+        }
+        return Math.toIntExact(threshold);
+    }
+
+    private static int nextApplicationEpochDay(LocalDate dateOfApplication) {
+        return Math.toIntExact(dateOfApplication.plusMonths(SIX_MONTHS).toEpochDay());
+    }
+
+    // The epoch day and the brand code are derived, so they are recomputed instead of being serialized
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (dateOfApplication != null) {
+            nextApplicationEpochDay = nextApplicationEpochDay(dateOfApplication);
+        }
+        if (brand != null) {
+            brandCode = VaccineBrands.code(brand);
+        }
     }
 
     @Override
@@ -0,0 +1,95 @@
+package org.study.common.model.animal;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import org.study.common.collection.StringDictionary;
+
+/**
+ * Canonical registry of vaccine brands: every brand name, ignoring case, gets a small
+ * int code the first time it is seen.
+ * <p>
+ * Vaccines resolve their code once, when the brand is set, so brand filters and
+ * group-bys compare ints instead of calling {@code equalsIgnoreCase}, and per-brand
+ * totals fit in an array indexed by code ({@link #size()} entries). Codes are dense
+ * and stable for the life of the process, but are not meant to be written to files.
+ * <p>
+ * Every spelling already seen is found with one lock-free lookup that allocates
+ * nothing; only a new spelling is folded and registered under the lock.
+ */
+public final class VaccineBrands {
+
+    public static final int NOT_FOUND = StringDictionary.NOT_FOUND;
+
+    // Exact spellings seen so far; the Integer values are shared, so a hit allocates nothing
+    private static final ConcurrentHashMap<String, Integer> SPELLINGS = new ConcurrentHashMap<>();
+    // Guarded by the class: keys are the case-folded names, names[code] is the first spelling seen for the code
+    private static final StringDictionary FOLDED = new StringDictionary();
+    private static String[] names = new String[16];
+    private static volatile int size;
+
+    private VaccineBrands() {
+    }
+
+    // Code of the brand, assigned on first use. "PFIZER" and "pfizer" share a code
+    public static int code(String brand) {
+        Integer code = SPELLINGS.get(brand);
+        return code != null ? code : register(brand);
+    }
+
+    // Code of the brand or NOT_FOUND, never registers it
+    public static int find(String brand) {
+        Integer code = SPELLINGS.get(brand);
+        if (code != null) {
+            return code;
+        }
+        synchronized (VaccineBrands.class) {
+            return FOLDED.find(fold(brand));
+        }
+    }
+
+    // The first spelling registered for the code
+    public static synchronized String name(int code) {
+        if (code < 0 || code >= FOLDED.size()) {
+            throw new IndexOutOfBoundsException("Unknown brand code: " + code);
+        }
+        return names[code];
+    }
+
+    // Number of brands registered so far, the size of an array indexed by brand code
+    public static int size() {
+        return size;
+    }
+
+    private static synchronized int register(String brand) {
+        int code = FOLDED.code(fold(brand));
+        if (code == names.length) {
+            names = Arrays.copyOf(names, code * 2);
+        }
+        if (names[code] == null) {
+            names[code] = brand;
+            size = code + 1;
+        }
+        // Published after the brand is complete, so readers of SPELLINGS never see a code past size()
+        SPELLINGS.putIfAbsent(brand, code);
+        return code;
+    }
+
+    // Same equivalence as String.equalsIgnoreCase; returns the brand itself when it is already folded
+    private static String fold(String brand) {
+        for (int i = 0; i < brand.length(); i++) {
+            char c = brand.charAt(i);
+            if (foldChar(c) != c) {
+                char[] folded = brand.toCharArray();
+                for (int j = i; j < folded.length; j++) {
+                    folded[j] = foldChar(folded[j]);
+                }
+                return new String(folded);
+            }
+        }
+        return brand;
+    }
+
+    private static char foldChar(char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+}
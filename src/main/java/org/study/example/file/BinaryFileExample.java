@@ -1,13 +1,24 @@
 package org.study.example.file;
 
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
 import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
+import org.study.common.io.ChannelStreams;
+import org.study.example.file.codec.EmployeeCodec;
+import org.study.example.file.codec.RecordFiles;
+import org.study.example.file.codec.RecordLog;
+import org.study.example.file.codec.TaggedEmployeeCodec;
+import org.study.example.file.codec.TaggedOutput;
 import org.study.example.file.model.Employee;
 
 /**
@@ -40,7 +51,8 @@ public class BinaryFileExample {
 
         // 2. Proceso de Serialización (Escribir objetos en un archivo)
         // El campo 'accessCode' será ignorado durante este proceso.
-        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(new FileOutputStream(objectFileName))) {
+        // ChannelStreams agrupa las escrituras pequeñas en un buffer directo, reutilizado entre archivos.
+        try (ObjectOutputStream objectOutputStream = new ObjectOutputStream(ChannelStreams.newOutputStream(Path.of(objectFileName)))) {
             objectOutputStream.writeObject(employeeList);
         }
         System.out.println("\nPaso 2: Lista de objetos serializada en '" + objectFileName + "'. El campo 'accessCode' fue omitido.");
@@ -51,7 +63,7 @@ public class BinaryFileExample {
 
         List<Employee> deserializedList;
 
-        try (ObjectInputStream objectInputStream = new ObjectInputStream(new FileInputStream(objectFileName))) {
+        try (ObjectInputStream objectInputStream = new ObjectInputStream(ChannelStreams.newInputStream(Path.of(objectFileName)))) {
             // Leemos el objeto desde el archivo y lo casteamos de vuelta a List<Employee>.
             deserializedList = (List<Employee>) objectInputStream.readObject();
         }
@@ -66,5 +78,64 @@ public class BinaryFileExample {
         System.out.println("\n--- CONCLUSIÓN ---");
         System.out.println("Como se puede observar, el campo 'accessCode' es 'null' en los objetos recuperados.");
         System.out.println("Esto demuestra que la palabra clave 'transient' previno exitosamente que ese dato se guardara en el archivo binario.");
+
+        // 5. Alternativa: un codec binario escrito a mano (EmployeeCodec).
+        // Solo escribe los valores de los campos en un orden fijo, sin descriptores de clase ni reflexión.
+        // Tampoco guarda 'accessCode', y la versión del codec cumple el papel de 'serialVersionUID'.
+        System.out.println("\n--- Alternativa: codec binario explícito ---");
+        Path codecFile = Path.of("employees.bin");
+        long codecBytes = RecordFiles.writeAll(codecFile, new EmployeeCodec(), employeeList);
+        List<Employee> decodedList = RecordFiles.readAll(codecFile, new EmployeeCodec());
+
+        System.out.println("Paso 5: Objetos recuperados con el codec:");
+        for (Employee currentEmployee : decodedList) {
+            System.out.println(currentEmployee);
+        }
+        System.out.println("Tamaño con ObjectOutputStream: " + Files.size(Path.of(objectFileName)) + " bytes");
+        System.out.println("Tamaño con EmployeeCodec: " + codecBytes + " bytes");
+
+        // 6. Registro de solo anexado (RecordLog): cada empleado se agrega al final sin reescribir el archivo.
+        // Cada registro lleva su longitud y un CRC32C; al abrir el archivo se descarta una escritura incompleta.
+        System.out.println("\n--- Registro de solo anexado con recuperación ---");
+        Path logFile = Path.of("employees.log");
+        Files.deleteIfExists(logFile);
+        try (RecordLog<Employee> log = RecordLog.open(logFile, new EmployeeCodec())) {
+            for (Employee currentEmployee : employeeList) {
+                log.append(currentEmployee);
+            }
+            // Un solo fsync para todos los registros agregados (group commit)
+            log.sync();
+        }
+
+        // Simulamos una caída a mitad de una escritura: quedan bytes sueltos al final del archivo.
+        Files.write(logFile, new byte[] {0, 0, 0, 40, 1, 2}, StandardOpenOption.APPEND);
+
+        try (RecordLog<Employee> log = RecordLog.open(logFile, new EmployeeCodec())) {
+            System.out.println("Paso 6: Registros válidos recuperados: " + log.getRecoveredRecords()
+                + ", bytes descartados: " + log.getTruncatedBytes());
+            log.appendDurably(new Employee("Diego Torres", 103, 68000.0, "dt_key_789"));
+        }
+        for (Employee currentEmployee : RecordLog.readAll(logFile, new EmployeeCodec())) {
+            System.out.println(currentEmployee);
+        }
+
+        // 7. Formato con etiquetas (TaggedEmployeeCodec): cada campo lleva un número y su tamaño.
+        // Un lector salta los campos que no conoce y deja el valor por defecto en los que faltan,
+        // así que agregar o quitar campos no obliga a cambiar la versión ni a migrar los archivos.
+        System.out.println("\n--- Formato con etiquetas: evolución del esquema ---");
+        ByteArrayOutputStream taggedBytes = new ByteArrayOutputStream();
+        try (DataOutputStream taggedOutput = new DataOutputStream(taggedBytes)) {
+            // Registro de una versión anterior, sin salario
+            new TaggedOutput(taggedOutput).writeString(1, "Elena Ríos").writeInt(2, 104).endRecord();
+            // Registro de una versión posterior, con un campo 'department' (etiqueta 4) que este código no conoce
+            new TaggedOutput(taggedOutput).writeString(1, "Fabián Mora").writeInt(2, 105)
+                .writeDouble(3, 71000.0).writeString(4, "Ventas").endRecord();
+        }
+        TaggedEmployeeCodec taggedCodec = new TaggedEmployeeCodec();
+        try (DataInputStream taggedInput = new DataInputStream(new ByteArrayInputStream(taggedBytes.toByteArray()))) {
+            System.out.println("Paso 7: Registros de otras versiones leídos sin migración:");
+            System.out.println(taggedCodec.read(taggedInput));
+            System.out.println(taggedCodec.read(taggedInput));
+        }
     }
 }
\ No newline at end of file
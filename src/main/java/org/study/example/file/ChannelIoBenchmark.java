@@ -0,0 +1,154 @@
+package org.study.example.file;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.study.common.io.BufferedChannelInputStream;
+import org.study.common.io.BufferedChannelOutputStream;
+import org.study.common.io.ChannelStreams;
+import org.study.example.file.model.Student;
+
+/**
+ * Writes and reads Students with ObjectOutputStream/ObjectInputStream, first straight
+ * on FileOutputStream/FileInputStream (as the examples used to) and then on
+ * ChannelStreams. Reports the number of read/write calls that reached the file
+ * (one system call each) and the throughput.
+ * <p>
+ * Usage: {@code ChannelIoBenchmark [students] [bufferSize]}
+ */
+public class ChannelIoBenchmark {
+
+    private static final int DEFAULT_STUDENTS = 200_000;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_STUDENTS;
+        int bufferSize = args.length > 1 ? Integer.parseInt(args[1]) : ChannelStreams.DEFAULT_BUFFER_SIZE;
+        Path file = Files.createTempFile("students", ".dat");
+        try {
+            System.out.println(count + " students, channel buffer of " + bufferSize + " bytes");
+
+            // Warm up both paths once so the JIT does not favour the second one
+            writeUnbuffered(file, Math.min(count, 20_000));
+            readUnbuffered(file);
+            writeChannel(file, Math.min(count, 20_000), bufferSize);
+            readChannel(file, bufferSize);
+
+            long start = System.nanoTime();
+            long calls = writeUnbuffered(file, count);
+            report("write FileOutputStream ", calls, Files.size(file), System.nanoTime() - start);
+            start = System.nanoTime();
+            calls = readUnbuffered(file);
+            report("read  FileInputStream  ", calls, Files.size(file), System.nanoTime() - start);
+
+            start = System.nanoTime();
+            calls = writeChannel(file, count, bufferSize);
+            report("write ChannelStreams   ", calls, Files.size(file), System.nanoTime() - start);
+            start = System.nanoTime();
+            calls = readChannel(file, bufferSize);
+            report("read  ChannelStreams   ", calls, Files.size(file), System.nanoTime() - start);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void report(String label, long calls, long bytes, long nanos) {
+        System.out.printf("%s %,10d calls   %8.1f MB/s%n", label, calls, bytes / 1e6 / (nanos / 1e9));
+    }
+
+    private static long writeUnbuffered(Path file, int count) throws IOException {
+        CountingOutputStream counting = new CountingOutputStream(new FileOutputStream(file.toFile()));
+        try (ObjectOutputStream out = new ObjectOutputStream(counting)) {
+            writeStudents(out, count);
+        }
+        return counting.calls;
+    }
+
+    private static long readUnbuffered(Path file) throws IOException, ClassNotFoundException {
+        CountingInputStream counting = new CountingInputStream(new FileInputStream(file.toFile()));
+        try (ObjectInputStream in = new ObjectInputStream(counting)) {
+            readStudents(in);
+        }
+        return counting.calls;
+    }
+
+    private static long writeChannel(Path file, int count, int bufferSize) throws IOException {
+        BufferedChannelOutputStream channel = ChannelStreams.newOutputStream(file, bufferSize);
+        try (ObjectOutputStream out = new ObjectOutputStream(channel)) {
+            writeStudents(out, count);
+        }
+        return channel.getChannelWrites();
+    }
+
+    private static long readChannel(Path file, int bufferSize) throws IOException, ClassNotFoundException {
+        BufferedChannelInputStream channel = ChannelStreams.newInputStream(file, bufferSize);
+        try (ObjectInputStream in = new ObjectInputStream(channel)) {
+            readStudents(in);
+        }
+        return channel.getChannelReads();
+    }
+
+    private static void writeStudents(ObjectOutputStream out, int count) throws IOException {
+        out.writeInt(count);
+        for (int i = 0; i < count; i++) {
+            out.writeObject(new Student(i, "Student " + i, 18 + i % 40));
+        }
+    }
+
+    private static void readStudents(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            in.readObject();
+        }
+    }
+
+    // Counts the calls that reach the file stream, each one is a system call
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        private long calls;
+
+        private CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            calls++;
+            out.write(b);
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            calls++;
+            out.write(bytes, offset, length);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private long calls;
+
+        private CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            calls++;
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            calls++;
+            return in.read(bytes, offset, length);
+        }
+    }
+}
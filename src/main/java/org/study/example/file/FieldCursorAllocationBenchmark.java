@@ -0,0 +1,102 @@
+package org.study.example.file;
+
+import java.lang.management.ManagementFactory;
+import java.util.function.ToLongFunction;
+import org.study.common.io.FieldCursor;
+import org.study.example.file.model.Product;
+import org.study.example.file.model.Student;
+
+/**
+ * Measures the bytes allocated per row when parsing Student and Product lines with
+ * String.split (before) and with FieldCursor (after).
+ * <p>
+ * Allocation is read from the HotSpot per-thread allocation counter, so this needs a
+ * JVM that exposes com.sun.management.ThreadMXBean.
+ */
+public class FieldCursorAllocationBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final String[] STUDENT_LINES = {"1;Juan;23", "2;María;30", "3;Pedro;27"};
+    private static final String[] PRODUCT_LINES = {"Laptop,999.99,50", "Teclado, 75.50 ,200", "Mouse,25.00,500"};
+
+    public static void main(String[] args) {
+        com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        FieldCursor studentCursor = new FieldCursor(';');
+        FieldCursor productCursor = new FieldCursor(',', true);
+
+        System.out.println("Bytes allocated per row (lower is better):");
+        report(threads, "Student  split ", FieldCursorAllocationBenchmark::studentWithSplit);
+        report(threads, "Student  cursor", line -> studentWithCursor(studentCursor, line));
+        report(threads, "Product  split ", FieldCursorAllocationBenchmark::productWithSplit);
+        report(threads, "Product  cursor", line -> productWithCursor(productCursor, line));
+
+        // Tokenizing only, without building the model object or its name String
+        report(threads, "Numbers  split ", FieldCursorAllocationBenchmark::numbersWithSplit);
+        report(threads, "Numbers  cursor", line -> numbersWithCursor(studentCursor, line));
+    }
+
+    private static void report(com.sun.management.ThreadMXBean threads,
+                               String label,
+                               ToLongFunction<Integer> rowParser) {
+        long threadId = Thread.currentThread().getId();
+        // Warm up so the JIT can remove allocations that do not escape
+        long checksum = run(rowParser);
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        long start = System.nanoTime();
+        checksum += run(rowParser);
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        System.out.printf("%s: %6.1f bytes/row  %6.1f ns/row  (checksum %d)%n",
+            label, (double) allocated / ROWS, (double) elapsed / ROWS, checksum);
+    }
+
+    private static long run(ToLongFunction<Integer> rowParser) {
+        long checksum = 0;
+        for (int i = 0; i < ROWS; i++) {
+            checksum += rowParser.applyAsLong(i);
+        }
+        return checksum;
+    }
+
+    private static long studentWithSplit(int row) {
+        String[] tokens = STUDENT_LINES[row % STUDENT_LINES.length].split(";");
+        Student student = new Student(Integer.parseInt(tokens[0]), tokens[1], Integer.parseInt(tokens[2]));
+        return student.getAge();
+    }
+
+    private static long studentWithCursor(FieldCursor cursor, int row) {
+        cursor.reset(STUDENT_LINES[row % STUDENT_LINES.length]);
+        Student student = new Student(cursor.nextInt(), cursor.nextString(), cursor.nextInt());
+        return student.getAge();
+    }
+
+    private static long productWithSplit(int row) {
+        String[] parts = PRODUCT_LINES[row % PRODUCT_LINES.length].split(",");
+        Product product = new Product(
+            parts[0].trim(),
+            Double.parseDouble(parts[1].trim()),
+            Integer.parseInt(parts[2].trim()));
+        return product.hashCode() & 1;
+    }
+
+    private static long productWithCursor(FieldCursor cursor, int row) {
+        cursor.reset(PRODUCT_LINES[row % PRODUCT_LINES.length]);
+        Product product = new Product(cursor.nextString(), cursor.nextDouble(), cursor.nextInt());
+        return product.hashCode() & 1;
+    }
+
+    private static long numbersWithSplit(int row) {
+        String[] tokens = STUDENT_LINES[row % STUDENT_LINES.length].split(";");
+        return Integer.parseInt(tokens[0]) + Integer.parseInt(tokens[2]);
+    }
+
+    private static long numbersWithCursor(FieldCursor cursor, int row) {
+        cursor.reset(STUDENT_LINES[row % STUDENT_LINES.length]);
+        int id = cursor.nextInt();
+        cursor.skip();
+        return id + cursor.nextInt();
+    }
+}
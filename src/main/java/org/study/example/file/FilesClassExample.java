@@ -1,16 +1,16 @@
 package org.study.example.file;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.io.InvalidClassException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import org.study.common.io.ChannelTransfers;
+import org.study.common.io.FieldCursor;
+import org.study.example.file.codec.RecordFiles;
+import org.study.example.file.codec.StudentCodec;
 import org.study.example.file.model.Student;
 
 public class FilesClassExample {
@@ -24,12 +24,14 @@ public class FilesClassExample {
             Path filePath = file.toPath();
             List<String> lines = Files.readAllLines(filePath);
 
+            //The cursor reads the fields in place, no String[] or substrings per line
+            FieldCursor cursor = new FieldCursor(';');
             for (String line : lines) {
-                String[] tokens = line.split(";");
+                cursor.reset(line);
                 Student student = new Student(
-                    Integer.parseInt(tokens[0]),
-                    tokens[1],
-                    Integer.parseInt(tokens[2]));
+                    cursor.nextInt(),
+                    cursor.nextString(),
+                    cursor.nextInt());
                 students.add(student);
             }
 
@@ -40,61 +42,47 @@ public class FilesClassExample {
 
 
         //Let's create a binary file to store the students list
+        //The StudentCodec writes only the field values (no class descriptors, no reflection)
         System.out.println("Writing " + students.size() + " students to binary file...");
 
-        String binaryFilePath = "students.dat";
-        File binaryFile = new File(binaryFilePath);
+        Path binaryFilePath = Path.of("students.dat");
+        StudentCodec codec = new StudentCodec();
 
         try {
-            FileOutputStream fileOut = new FileOutputStream(binaryFile);
-            ObjectOutputStream out = new ObjectOutputStream(fileOut);
-            //We can use the writeObject method to write an object to a file
-            for (Student student : students) {
-                out.writeObject(student);
-            }
-            //We need to close the streams
-            out.close();
-            fileOut.close();
-            System.out.println("Binary file created successfully!");
-            //See that we need catch the FileNotFoundException and IOException exceptions
-        } catch (FileNotFoundException e) {
-            System.out.println("File not found");
+            long bytes = RecordFiles.writeAll(binaryFilePath, codec, students);
+            System.out.println("Binary file created successfully! (" + bytes + " bytes)");
         } catch (IOException e) {
             System.out.println("Something went wrong when writing to the file");
             System.out.println(e.getMessage());
         }
 
         //Read the binary file and print the students
-
+        //The file header holds the number of records, so there is no need to wait for an EOFException
         try {
-            FileInputStream fileIn = new FileInputStream(binaryFilePath);
-            ObjectInputStream in = new ObjectInputStream(fileIn);
-            List<Student> studentsFromFile = new ArrayList<>();
-
-            // Read objects until we reach the end of the file
-            try {
-                while (true) {
-                    Student student = (Student) in.readObject();
-                    studentsFromFile.add(student);
-                }
-            } catch (java.io.EOFException e) {
-                // End of file reached, this is expected
-            }
+            List<Student> studentsFromFile = RecordFiles.readAll(binaryFilePath, codec);
 
             System.out.println("Students read from binary file:");
             for (Student student : studentsFromFile) {
                 System.out.println(student);
             }
-
-            in.close();
-            fileIn.close();
-        } catch (FileNotFoundException e) {
-            System.out.println("File not found");
+        } catch (InvalidClassException e) {
+            //Thrown when the file was written by another version of the codec
+            System.out.println("Incompatible file version: " + e.getMessage());
         } catch (IOException e) {
             System.out.println("Something went wrong when reading the file");
             System.out.println(e.getMessage());
-        } catch (ClassNotFoundException e) {
-            System.out.println("Class not found");
+        }
+
+        //Keep a backup copy of the binary file
+        //transferTo lets the operating system copy the bytes, they are never read into the heap
+        Path backupFilePath = Path.of("students-backup.dat");
+        try {
+            long copied = ChannelTransfers.copy(binaryFilePath, backupFilePath);
+            System.out.println("Backup created in " + backupFilePath + " (" + copied + " bytes)");
+            System.out.println("Students in the backup: " + RecordFiles.readAll(backupFilePath, codec).size());
+        } catch (IOException e) {
+            System.out.println("Something went wrong when copying the file");
+            System.out.println(e.getMessage());
         }
 
     }
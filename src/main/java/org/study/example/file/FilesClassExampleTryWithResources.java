@@ -1,16 +1,23 @@
 package org.study.example.file;
 
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
+import org.study.common.io.ChannelStreams;
+import org.study.common.io.FieldCursor;
+import org.study.common.io.ObjectFileStreams;
+import org.study.example.file.codec.IndexedRecordFile;
+import org.study.example.file.codec.StudentCodec;
 import org.study.example.file.model.Student;
 
 public class FilesClassExampleTryWithResources {
@@ -24,12 +31,14 @@ public class FilesClassExampleTryWithResources {
             Path filePath = file.toPath();
             List<String> lines = Files.readAllLines(filePath);
 
+            //The cursor reads the fields in place, no String[] or substrings per line
+            FieldCursor cursor = new FieldCursor(';');
             for (String line : lines) {
-                String[] tokens = line.split(";");
+                cursor.reset(line);
                 Student student = new Student(
-                    Integer.parseInt(tokens[0]),
-                    tokens[1],
-                    Integer.parseInt(tokens[2]));
+                    cursor.nextInt(),
+                    cursor.nextString(),
+                    cursor.nextInt());
                 students.add(student);
             }
 
@@ -46,7 +55,9 @@ public class FilesClassExampleTryWithResources {
         File binaryFile = new File(binaryFilePath);
 
         // Try-with-resources automatically closes the streams
-        try (FileOutputStream fileOut = new FileOutputStream(binaryFile);
+        // ChannelStreams buffers the small writes of ObjectOutputStream in a pooled direct buffer,
+        // so the file receives one write per 64 KiB instead of one per field
+        try (OutputStream fileOut = ChannelStreams.newOutputStream(binaryFile.toPath());
              ObjectOutputStream out = new ObjectOutputStream(fileOut)) {
             
             //We can use the writeObject method to write an object to a file
@@ -55,7 +66,7 @@ public class FilesClassExampleTryWithResources {
             }
             System.out.println("Binary file created successfully!");
             //Streams are automatically closed by try-with-resources
-        } catch (FileNotFoundException e) {
+        } catch (NoSuchFileException e) {
             System.out.println("File not found");
         } catch (IOException e) {
             System.out.println("Something went wrong when writing to the file");
@@ -65,7 +76,7 @@ public class FilesClassExampleTryWithResources {
         //Read the binary file and print the students using try-with-resources
 
         // Approach 1: Using EOFException (current approach, improved with try-with-resources)
-        try (FileInputStream fileIn = new FileInputStream(binaryFilePath);
+        try (InputStream fileIn = ChannelStreams.newInputStream(Path.of(binaryFilePath));
              ObjectInputStream in = new ObjectInputStream(fileIn)) {
             
             List<Student> studentsFromFile = new ArrayList<>();
@@ -85,7 +96,7 @@ public class FilesClassExampleTryWithResources {
                 System.out.println(student);
             }
             // Streams are automatically closed by try-with-resources
-        } catch (FileNotFoundException e) {
+        } catch (NoSuchFileException e) {
             System.out.println("File not found");
         } catch (IOException e) {
             System.out.println("Something went wrong when reading the file");
@@ -105,7 +116,7 @@ public class FilesClassExampleTryWithResources {
         System.out.println("\n--- Approach 2: Count-based serialization ---");
         
         // Write: Store count first, then objects
-        try (FileOutputStream fileOut = new FileOutputStream(countBasedFilePath);
+        try (OutputStream fileOut = ChannelStreams.newOutputStream(Path.of(countBasedFilePath));
              ObjectOutputStream out = new ObjectOutputStream(fileOut)) {
             
             // Write the count first
@@ -123,7 +134,7 @@ public class FilesClassExampleTryWithResources {
         }
         
         // Read: Read count first, then read that exact number of objects
-        try (FileInputStream fileIn = new FileInputStream(countBasedFilePath);
+        try (InputStream fileIn = ChannelStreams.newInputStream(Path.of(countBasedFilePath));
              ObjectInputStream in = new ObjectInputStream(fileIn)) {
             
             // Read the count first
@@ -153,7 +164,7 @@ public class FilesClassExampleTryWithResources {
         System.out.println("\n--- Approach 3: Collection serialization ---");
         
         // Write: Serialize the entire ArrayList as one object
-        try (FileOutputStream fileOut = new FileOutputStream(collectionFilePath);
+        try (OutputStream fileOut = ChannelStreams.newOutputStream(Path.of(collectionFilePath));
              ObjectOutputStream out = new ObjectOutputStream(fileOut)) {
             
             // Write the entire list as a single object
@@ -166,7 +177,7 @@ public class FilesClassExampleTryWithResources {
         }
         
         // Read: Read the entire collection as one object
-        try (FileInputStream fileIn = new FileInputStream(collectionFilePath);
+        try (InputStream fileIn = ChannelStreams.newInputStream(Path.of(collectionFilePath));
              ObjectInputStream in = new ObjectInputStream(fileIn)) {
             
             // Read the entire list as a single object
@@ -182,9 +193,57 @@ public class FilesClassExampleTryWithResources {
         }
     }
 
+    // Alternative Approach 4: Length-prefixed records with a trailing index (random access)
+    private static void demonstrateIndexedRecordFile(List<Student> students) {
+        Path indexedFilePath = Path.of("students_indexed.dat");
+
+        System.out.println("\n--- Approach 4: Indexed record file ---");
+
+        // Write: every record is stored with its length, and the offsets go at the end of the file
+        try {
+            long bytes = IndexedRecordFile.write(indexedFilePath, new StudentCodec(), Student::getId, students);
+            System.out.println("Indexed binary file created successfully! (" + bytes + " bytes)");
+        } catch (IOException e) {
+            System.out.println("Error writing indexed file: " + e.getMessage());
+            return;
+        }
+
+        // Read: only the index is loaded, each record is read with a single seek
+        try (IndexedRecordFile<Student> file = IndexedRecordFile.open(indexedFilePath, new StudentCodec())) {
+            System.out.println("Last student (by position): " + file.get(file.size() - 1));
+            System.out.println("Student with id 2 (by id): " + file.findById(2).orElse(null));
+
+            // A range is decoded lazily, the full List<Student> is never built
+            System.out.println("Students in positions [1, " + file.size() + "):");
+            try (Stream<Student> range = file.stream(1, file.size())) {
+                range.forEach(System.out::println);
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading indexed file: " + e.getMessage());
+        }
+    }
+
+    // Alternative Approach 5: Lazy stream over the file written in Approach 1
+    private static void demonstrateLazyObjectStream(String binaryFilePath) {
+        System.out.println("\n--- Approach 5: Lazy stream of objects ---");
+
+        // Objects are read only when the pipeline asks for them, the end of the file
+        // is detected without an EOFException and closing the stream closes the file
+        try (Stream<Student> studentsFromFile = ObjectFileStreams.stream(Path.of(binaryFilePath), Student.class)) {
+            studentsFromFile
+                .filter(student -> student.getAge() > 25)
+                .limit(1)
+                .forEach(student -> System.out.println("First student older than 25: " + student));
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error streaming binary file: " + e.getMessage());
+        }
+    }
+
     private static void demonstrateAlternativeApproaches(List<Student> students) {
         demonstrateCountBasedSerialization(students);
         demonstrateCollectionSerialization(students);
+        demonstrateIndexedRecordFile(students);
+        demonstrateLazyObjectStream("students.dat");
     }
 
 }
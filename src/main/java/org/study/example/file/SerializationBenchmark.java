@@ -0,0 +1,127 @@
+package org.study.example.file;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.study.example.file.codec.EmployeeCodec;
+import org.study.example.file.codec.RecordCodec;
+import org.study.example.file.codec.StudentCodec;
+import org.study.example.file.codec.TaggedEmployeeCodec;
+import org.study.example.file.codec.TaggedStudentCodec;
+import org.study.example.file.model.Employee;
+import org.study.example.file.model.Student;
+
+/**
+ * Compares Java serialization (one writeObject per record, as the file examples do)
+ * with the hand-written codecs: bytes per record and encode/decode throughput.
+ * Everything runs in memory so only the encoding is measured, not the disk.
+ * <p>
+ * Usage: {@code SerializationBenchmark [records]}
+ */
+public class SerializationBenchmark {
+
+    private static final int DEFAULT_RECORDS = 200_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException, ClassNotFoundException {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_RECORDS;
+
+        List<Student> students = new ArrayList<>(count);
+        List<Employee> employees = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            students.add(new Student(i, "Student " + i, 18 + i % 40));
+            employees.add(new Employee("Employee " + i, i, 30_000 + i % 5_000, "code" + i));
+        }
+
+        System.out.println(count + " records, best of " + ROUNDS + " rounds");
+        compare("Student", students, new StudentCodec());
+        compare("Employee", employees, new EmployeeCodec());
+        compare("Student (tagged)", students, new TaggedStudentCodec());
+        compare("Employee (tagged)", employees, new TaggedEmployeeCodec());
+    }
+
+    private static <T> void compare(String label, List<T> records, RecordCodec<T> codec)
+        throws IOException, ClassNotFoundException {
+        long serializationEncode = Long.MAX_VALUE;
+        long serializationDecode = Long.MAX_VALUE;
+        long codecEncode = Long.MAX_VALUE;
+        long codecDecode = Long.MAX_VALUE;
+        byte[] serialized = null;
+        byte[] encoded = null;
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            serialized = serialize(records);
+            serializationEncode = Math.min(serializationEncode, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            deserialize(serialized, records.size());
+            serializationDecode = Math.min(serializationDecode, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            encoded = encode(records, codec);
+            codecEncode = Math.min(codecEncode, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            decode(encoded, records.size(), codec);
+            codecDecode = Math.min(codecDecode, System.nanoTime() - start);
+        }
+
+        System.out.println();
+        System.out.println(label);
+        report("  ObjectOutputStream", records.size(), serialized.length, serializationEncode, serializationDecode);
+        report("  " + codec.getClass().getSimpleName(), records.size(), encoded.length, codecEncode, codecDecode);
+    }
+
+    private static void report(String label, int records, int bytes, long encodeNanos, long decodeNanos) {
+        System.out.printf("%-22s %6.1f bytes/record   encode %,12.0f records/s   decode %,12.0f records/s%n",
+            label,
+            (double) bytes / records,
+            records / (encodeNanos / 1e9),
+            records / (decodeNanos / 1e9));
+    }
+
+    private static byte[] serialize(List<?> records) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            for (Object record : records) {
+                out.writeObject(record);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static void deserialize(byte[] data, int count) throws IOException, ClassNotFoundException {
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(data))) {
+            for (int i = 0; i < count; i++) {
+                in.readObject();
+            }
+        }
+    }
+
+    private static <T> byte[] encode(List<T> records, RecordCodec<T> codec) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(codec.getVersion());
+            for (T record : records) {
+                codec.write(out, record);
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static <T> void decode(byte[] data, int count, RecordCodec<T> codec) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            in.readLong();
+            for (int i = 0; i < count; i++) {
+                codec.read(in);
+            }
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.study.example.file;
 
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -7,6 +9,8 @@ import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import org.study.common.io.ChannelStreams;
+import org.study.common.io.FieldCursor;
 import org.study.example.file.model.Product;
 
 /**
@@ -81,30 +85,44 @@ public class TextFileExample {
             "Monitor", // Línea mal formada
             "Webcam,45.99,150"
         );
-        Files.write(csvFilePath, csvLines);
+        // ChannelStreams escribe por medio de un FileChannel con un buffer directo reutilizable.
+        try (BufferedWriter writer = ChannelStreams.newWriter(csvFilePath)) {
+            for (String csvLine : csvLines) {
+                writer.write(csvLine);
+                writer.newLine();
+            }
+        }
         System.out.println("Archivo de datos '" + csvFileName + "' creado para el ejemplo de parseo.");
 
         // Ahora, leemos el archivo y lo convertimos en una lista de objetos 'Producto'.
         List<Product> productList = new ArrayList<>();
-        List<String> linesFromCsv = Files.readAllLines(csvFilePath);
+        List<String> linesFromCsv;
+        try (BufferedReader reader = ChannelStreams.newReader(csvFilePath)) {
+            linesFromCsv = reader.lines().toList();
+        }
 
         // Procesamos cada línea para crear un objeto.
+        // FieldCursor recorre los campos separados por coma sin crear un String[] ni subcadenas;
+        // los números se leen directamente de los caracteres de la línea.
+        FieldCursor cursor = new FieldCursor(',', true);
         for (String currentLine : linesFromCsv) {
-            // Dividimos la línea por la coma para obtener los campos.
-            String[] parts = currentLine.split(",");
-
-            // Verificamos que la línea tenga el número correcto de partes para evitar errores.
-            if (parts.length == 3) {
-                try {
-                    // Extraemos y convertimos cada parte al tipo de dato correcto.
-                    // .trim() elimina espacios en blanco al inicio y al final.
-                    String name = parts[0].trim();
-                    double price = Double.parseDouble(parts[1].trim());
-                    int stock = Integer.parseInt(parts[2].trim());
-
+            cursor.reset(currentLine);
+
+            // Verificamos que la línea tenga el número correcto de campos para evitar errores.
+            if (cursor.remainingFields() == 3) {
+                // Extraemos y convertimos cada campo al tipo de dato correcto.
+                // El cursor ignora los espacios en blanco al inicio y al final (como .trim()).
+                // Los métodos tryNext... devuelven false si el número no es válido en lugar de
+                // lanzar NumberFormatException, así una línea mal formada no cuesta una excepción.
+                String name = cursor.nextString();
+                boolean validPrice = cursor.tryNextDouble();
+                double price = cursor.doubleValue();
+                boolean validStock = cursor.tryNextInt();
+
+                if (validPrice && validStock) {
                     // Creamos el objeto Producto y lo añadimos a nuestra lista.
-                    productList.add(new Product(name, price, stock));
-                } catch (NumberFormatException e) {
+                    productList.add(new Product(name, price, cursor.intValue()));
+                } else {
                     // Manejamos el caso en que un número no pueda ser parseado.
                     System.err.println("ADVERTENCIA: Se omitió una línea con formato de número incorrecto: " + currentLine);
                 }
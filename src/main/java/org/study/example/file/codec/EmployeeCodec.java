@@ -0,0 +1,37 @@
+package org.study.example.file.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import org.study.example.file.model.Employee;
+
+/**
+ * Layout: string fullName, int employeeId, double salary.
+ * The transient accessCode is never written, decoded employees have none, exactly as
+ * with Java serialization.
+ */
+public final class EmployeeCodec implements RecordCodec<Employee> {
+
+    // Follows Employee.serialVersionUID
+    public static final long VERSION = 2L;
+
+    @Override
+    public long getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(DataOutput out, Employee employee) throws IOException {
+        RecordCodec.writeString(out, employee.getFullName());
+        out.writeInt(employee.getEmployeeId());
+        out.writeDouble(employee.getSalary());
+    }
+
+    @Override
+    public Employee read(DataInput in) throws IOException {
+        String fullName = RecordCodec.readString(in);
+        int employeeId = in.readInt();
+        double salary = in.readDouble();
+        return new Employee(fullName, employeeId, salary, null);
+    }
+}
@@ -0,0 +1,292 @@
+package org.study.example.file.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.study.common.io.ChannelStreams;
+
+/**
+ * Record file with a trailing index, so any record can be read without decoding the
+ * ones before it.
+ * <p>
+ * Layout:
+ * <pre>
+ * header   magic int, codec version long
+ * records  length int + encoded record, back to back
+ * index    record offset long[count], then (id int, position int)[count] sorted by id
+ * footer   index offset long, count int, magic int
+ * </pre>
+ * Opening reads the footer and the index; {@link #get(int)} and {@link #findById(int)}
+ * then cost one positional read each. {@link #stream(int, int)} reads a range in
+ * blocks of whole records and decodes them lazily, so a scan never holds the full
+ * list in memory.
+ * <p>
+ * Reads are positional, an open file can be shared by several threads.
+ */
+public final class IndexedRecordFile<T> implements Closeable {
+
+    public static final int MAGIC = 0x49445831; // "IDX1"
+
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final int FOOTER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES;
+    private static final int LENGTH_PREFIX = Integer.BYTES;
+    private static final int SCAN_BLOCK_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final RecordCodec<T> codec;
+    // offsets[count] is the start of the index, i.e. the end of the last record
+    private final long[] offsets;
+    private final int[] sortedIds;
+    private final int[] positionsById;
+
+    private IndexedRecordFile(FileChannel channel, RecordCodec<T> codec,
+                              long[] offsets, int[] sortedIds, int[] positionsById) {
+        this.channel = channel;
+        this.codec = codec;
+        this.offsets = offsets;
+        this.sortedIds = sortedIds;
+        this.positionsById = positionsById;
+    }
+
+    /**
+     * Writes the records in iteration order; their position in the file is their
+     * position in the collection.
+     *
+     * @return the size of the file in bytes
+     */
+    public static <T> long write(Path path,
+                                 RecordCodec<T> codec,
+                                 ToIntFunction<? super T> idOf,
+                                 Collection<? extends T> records) throws IOException {
+        int count = records.size();
+        long[] offsets = new long[count];
+        long[] idAndPosition = new long[count];
+        ByteArrayOutputStream recordBytes = new ByteArrayOutputStream(256);
+        DataOutputStream recordOut = new DataOutputStream(recordBytes);
+
+        try (DataOutputStream out = new DataOutputStream(ChannelStreams.newOutputStream(path))) {
+            out.writeInt(MAGIC);
+            out.writeLong(codec.getVersion());
+            long position = HEADER_SIZE;
+            int index = 0;
+            for (T record : records) {
+                recordBytes.reset();
+                codec.write(recordOut, record);
+                offsets[index] = position;
+                // The id in the high half keeps equal ids in file order once sorted
+                idAndPosition[index] = (long) idOf.applyAsInt(record) << 32 | index;
+                out.writeInt(recordBytes.size());
+                recordBytes.writeTo(out);
+                position += LENGTH_PREFIX + recordBytes.size();
+                index++;
+            }
+
+            long indexOffset = position;
+            for (long offset : offsets) {
+                out.writeLong(offset);
+            }
+            Arrays.sort(idAndPosition);
+            for (long entry : idAndPosition) {
+                out.writeInt((int) (entry >> 32));
+                out.writeInt((int) entry);
+            }
+            out.writeLong(indexOffset);
+            out.writeInt(count);
+            out.writeInt(MAGIC);
+            return indexOffset + (long) count * (Long.BYTES + 2 * Integer.BYTES) + FOOTER_SIZE;
+        }
+    }
+
+    public static <T> IndexedRecordFile<T> open(Path path, RecordCodec<T> codec) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < HEADER_SIZE + FOOTER_SIZE) {
+                throw new StreamCorruptedException("Not an indexed record file");
+            }
+            ByteBuffer header = readFully(channel, 0, HEADER_SIZE);
+            if (header.getInt() != MAGIC) {
+                throw new StreamCorruptedException("Not an indexed record file");
+            }
+            long version = header.getLong();
+            if (version != codec.getVersion()) {
+                throw new InvalidClassException(codec.getClass().getName(),
+                    "file version " + version + " does not match codec version " + codec.getVersion());
+            }
+
+            ByteBuffer footer = readFully(channel, size - FOOTER_SIZE, FOOTER_SIZE);
+            long indexOffset = footer.getLong();
+            int count = footer.getInt();
+            long indexSize = (long) count * (Long.BYTES + 2 * Integer.BYTES);
+            if (footer.getInt() != MAGIC || count < 0 || indexOffset < HEADER_SIZE
+                || indexOffset + indexSize + FOOTER_SIZE != size) {
+                throw new StreamCorruptedException("Index footer is missing or corrupt");
+            }
+
+            ByteBuffer index = readFully(channel, indexOffset, Math.toIntExact(indexSize));
+            long[] offsets = new long[count + 1];
+            for (int i = 0; i < count; i++) {
+                offsets[i] = index.getLong();
+            }
+            offsets[count] = indexOffset;
+            int[] sortedIds = new int[count];
+            int[] positionsById = new int[count];
+            for (int i = 0; i < count; i++) {
+                sortedIds[i] = index.getInt();
+                positionsById[i] = index.getInt();
+            }
+            return new IndexedRecordFile<>(channel, codec, offsets, sortedIds, positionsById);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public int size() {
+        return offsets.length - 1;
+    }
+
+    // Record at the given position (0-based, in write order)
+    public T get(int position) throws IOException {
+        checkPosition(position);
+        long start = offsets[position];
+        ByteBuffer bytes = readFully(channel, start, (int) (offsets[position + 1] - start));
+        return decode(bytes.array(), 0);
+    }
+
+    // Binary search over the in-memory id index, then a single read
+    public Optional<T> findById(int id) throws IOException {
+        int low = 0;
+        int high = sortedIds.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (sortedIds[middle] < id) {
+                low = middle + 1;
+            } else {
+                if (sortedIds[middle] == id) {
+                    found = middle;
+                }
+                high = middle - 1;
+            }
+        }
+        return found < 0 ? Optional.empty() : Optional.of(get(positionsById[found]));
+    }
+
+    // All records, see stream(int, int)
+    public Stream<T> stream() {
+        return stream(0, size());
+    }
+
+    /**
+     * Lazily decodes the records in positions {@code [from, to)}. Whole records are
+     * read in blocks of about 64 KiB, so memory use does not depend on the range size.
+     */
+    public Stream<T> stream(int from, int to) {
+        if (from < 0 || to > size() || from > to) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + to + ") of " + size());
+        }
+        Iterator<T> iterator = new Iterator<>() {
+            private int next = from;
+            private int blockEnd = from;
+            private byte[] block;
+            private long blockStart;
+
+            @Override
+            public boolean hasNext() {
+                return next < to;
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                try {
+                    if (next == blockEnd) {
+                        readBlock();
+                    }
+                    T record = decode(block, (int) (offsets[next] - blockStart));
+                    next++;
+                    return record;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+
+            // At least one record, more while they fit in the scan block
+            private void readBlock() throws IOException {
+                blockStart = offsets[next];
+                blockEnd = next + 1;
+                while (blockEnd < to && offsets[blockEnd + 1] - blockStart <= SCAN_BLOCK_SIZE) {
+                    blockEnd++;
+                }
+                block = readFully(channel, blockStart, (int) (offsets[blockEnd] - blockStart)).array();
+            }
+        };
+        return StreamSupport.stream(
+            Spliterators.spliterator(iterator, to - from, Spliterator.ORDERED | Spliterator.NONNULL),
+            false);
+    }
+
+    // Convenience for small files or tests, prefer stream() for large ones
+    public List<T> readAll() throws IOException {
+        List<T> records = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            records.add(get(i));
+        }
+        return records;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Decodes the length-prefixed record that starts at offset
+    private T decode(byte[] bytes, int offset) throws IOException {
+        int length = ((bytes[offset] & 0xff) << 24) | ((bytes[offset + 1] & 0xff) << 16)
+            | ((bytes[offset + 2] & 0xff) << 8) | (bytes[offset + 3] & 0xff);
+        return codec.read(new DataInputStream(
+            new ByteArrayInputStream(bytes, offset + LENGTH_PREFIX, length)));
+    }
+
+    private void checkPosition(int position) {
+        if (position < 0 || position >= size()) {
+            throw new IndexOutOfBoundsException("Position " + position + " of " + size());
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of record file");
+            }
+        }
+        return buffer.flip();
+    }
+}
@@ -0,0 +1,34 @@
+package org.study.example.file.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Explicit binary encoder/decoder for one record type.
+ * <p>
+ * Unlike ObjectOutputStream a codec writes only the field values, in a fixed order,
+ * without class descriptors or reflection. {@link #getVersion()} plays the role of
+ * {@code serialVersionUID}: it is stored in the file header by {@link RecordFiles}
+ * and must change whenever the field layout changes.
+ */
+public interface RecordCodec<T> {
+
+    long getVersion();
+
+    void write(DataOutput out, T record) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    // Nullable text: a presence flag followed by modified UTF-8
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+}
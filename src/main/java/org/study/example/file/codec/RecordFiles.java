@@ -0,0 +1,74 @@
+package org.study.example.file.codec;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.StreamCorruptedException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import org.study.common.io.ChannelStreams;
+
+/**
+ * Reads and writes whole files of records with a {@link RecordCodec}.
+ * <p>
+ * File layout: magic int, codec version long, record count int, then the records.
+ * A file written by another version of the codec is rejected with
+ * {@link InvalidClassException}, the same error Java serialization reports for a
+ * {@code serialVersionUID} mismatch.
+ */
+public final class RecordFiles {
+
+    public static final int MAGIC = 0x52454331; // "REC1"
+
+    private RecordFiles() {
+    }
+
+    // Returns the size of the file in bytes
+    public static <T> long writeAll(Path path, RecordCodec<T> codec, Collection<? extends T> records)
+        throws IOException {
+        try (DataOutputStream out = new DataOutputStream(ChannelStreams.newOutputStream(path))) {
+            writeHeader(out, codec, records.size());
+            for (T record : records) {
+                codec.write(out, record);
+            }
+            return out.size();
+        }
+    }
+
+    public static <T> List<T> readAll(Path path, RecordCodec<T> codec) throws IOException {
+        try (DataInputStream in = new DataInputStream(ChannelStreams.newInputStream(path))) {
+            int count = readHeader(in, codec);
+            List<T> records = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                records.add(codec.read(in));
+            }
+            return records;
+        }
+    }
+
+    static void writeHeader(DataOutputStream out, RecordCodec<?> codec, int count) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeLong(codec.getVersion());
+        out.writeInt(count);
+    }
+
+    // Checks magic and version and returns the record count
+    static int readHeader(DataInputStream in, RecordCodec<?> codec) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new StreamCorruptedException("Not a record file");
+        }
+        long version = in.readLong();
+        if (version != codec.getVersion()) {
+            throw new InvalidClassException(codec.getClass().getName(),
+                "file version " + version + " does not match codec version " + codec.getVersion());
+        }
+        int count = in.readInt();
+        if (count < 0) {
+            throw new StreamCorruptedException("Negative record count");
+        }
+        return count;
+    }
+}
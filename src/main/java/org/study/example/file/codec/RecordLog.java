@@ -0,0 +1,319 @@
+package org.study.example.file.codec;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only log of records with length and checksum framing.
+ * <p>
+ * Layout: magic int and codec version long, then frames of
+ * {@code length int, crc32c int, encoded record}. Opening a log scans it and
+ * truncates everything after the last frame whose length and checksum are valid,
+ * so a write torn by a crash loses only that record instead of the whole file.
+ * Frames are never empty: the CRC-32C of no bytes is 0, so a zero length would let a
+ * zero-filled tail (the file grew but the data never reached the disk) pass as valid
+ * frames. A file whose header is incomplete or still zero-filled was torn while it was
+ * created, and starts over as an empty log.
+ * <p>
+ * {@link #append(Object)} only buffers the record. Durability is asked for with
+ * {@link #sync(long)}: the first waiting thread writes every buffered record and
+ * calls {@code force} once, and the threads that arrive meanwhile find their records
+ * already durable (group commit). Appends from several threads are allowed.
+ */
+public final class RecordLog<T> implements Closeable {
+
+    public static final int MAGIC = 0x524C4F47; // "RLOG"
+
+    private static final int HEADER_SIZE = Integer.BYTES + Long.BYTES;
+    private static final int FRAME_HEADER_SIZE = 2 * Integer.BYTES;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // A length above this is treated as a torn frame rather than a huge allocation
+    private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final RecordCodec<T> codec;
+    private final Object syncLock = new Object();
+
+    // Guarded by this
+    private final ByteBuffer pending = ByteBuffer.allocate(BUFFER_SIZE);
+    private final ExposedBytes recordBytes = new ExposedBytes();
+    private final DataOutputStream recordOut = new DataOutputStream(recordBytes);
+    private final CRC32C crc = new CRC32C();
+    private long appended;
+    private long written;
+
+    private volatile long durable;
+    private final long recoveredRecords;
+    private final long truncatedBytes;
+
+    private RecordLog(FileChannel channel, RecordCodec<T> codec, long recoveredRecords, long truncatedBytes) {
+        this.channel = channel;
+        this.codec = codec;
+        this.recoveredRecords = recoveredRecords;
+        this.truncatedBytes = truncatedBytes;
+    }
+
+    /**
+     * Opens or creates the log for appending. An existing log is recovered first: a
+     * torn or corrupt tail is cut off and forced to disk before any new append.
+     */
+    public static <T> RecordLog<T> open(Path path, RecordCodec<T> codec) throws IOException {
+        FileChannel channel = FileChannel.open(path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE);
+        try {
+            long size = channel.size();
+            if (isTornHeader(channel, size)) {
+                if (size > 0) {
+                    channel.truncate(0);
+                }
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                    .putInt(MAGIC)
+                    .putLong(codec.getVersion())
+                    .flip();
+                writeFully(channel, header, 0);
+                channel.force(true);
+                channel.position(HEADER_SIZE);
+                return new RecordLog<>(channel, codec, 0, size);
+            }
+            Scan scan = scan(channel, codec, null);
+            long truncated = size - scan.validEnd;
+            if (truncated > 0) {
+                channel.truncate(scan.validEnd);
+                channel.force(true);
+            }
+            channel.position(scan.validEnd);
+            return new RecordLog<>(channel, codec, scan.records, truncated);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Reads every valid record without modifying the file, a torn tail is ignored
+    public static <T> List<T> readAll(Path path, RecordCodec<T> codec) throws IOException {
+        List<T> records = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // A log whose header was never completed holds no record
+            if (!isTornHeader(channel, channel.size())) {
+                scan(channel, codec, records::add);
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Buffers the record at the end of the log.
+     *
+     * @return its sequence number (1 for the first record appended by this instance),
+     *     to be passed to {@link #sync(long)}
+     */
+    public synchronized long append(T record) throws IOException {
+        recordBytes.reset();
+        codec.write(recordOut, record);
+        int length = recordBytes.size();
+        if (length == 0) {
+            throw new IllegalArgumentException("The codec wrote an empty record, frames cannot be empty");
+        }
+        if (length > MAX_RECORD_SIZE) {
+            throw new IllegalArgumentException("Record of " + length + " bytes exceeds the maximum frame size");
+        }
+        crc.reset();
+        crc.update(recordBytes.array(), 0, length);
+
+        if (pending.remaining() < FRAME_HEADER_SIZE + length) {
+            writePending();
+        }
+        if (pending.remaining() < FRAME_HEADER_SIZE + length) {
+            // Larger than the buffer, written on its own
+            ByteBuffer frame = ByteBuffer.allocate(FRAME_HEADER_SIZE + length)
+                .putInt(length)
+                .putInt((int) crc.getValue())
+                .put(recordBytes.array(), 0, length)
+                .flip();
+            while (frame.hasRemaining()) {
+                channel.write(frame);
+            }
+        } else {
+            pending.putInt(length).putInt((int) crc.getValue()).put(recordBytes.array(), 0, length);
+        }
+        return ++appended;
+    }
+
+    // Appends and waits until the record is on disk
+    public long appendDurably(T record) throws IOException {
+        long sequence = append(record);
+        sync(sequence);
+        return sequence;
+    }
+
+    // Makes every record up to sequence durable, one force() covers all waiting threads
+    public void sync(long sequence) throws IOException {
+        if (durable >= sequence) {
+            return;
+        }
+        synchronized (syncLock) {
+            if (durable >= sequence) {
+                return;
+            }
+            long target;
+            synchronized (this) {
+                writePending();
+                target = written;
+            }
+            // Appends continue while the disk flushes
+            channel.force(false);
+            durable = target;
+        }
+    }
+
+    // Makes everything appended so far durable
+    public void sync() throws IOException {
+        long target;
+        synchronized (this) {
+            target = appended;
+        }
+        sync(target);
+    }
+
+    // Records found valid when the log was opened
+    public long getRecoveredRecords() {
+        return recoveredRecords;
+    }
+
+    // Bytes cut from the end of the file when it was opened
+    public long getTruncatedBytes() {
+        return truncatedBytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            sync();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void writePending() throws IOException {
+        pending.flip();
+        while (pending.hasRemaining()) {
+            channel.write(pending);
+        }
+        pending.clear();
+        written = appended;
+    }
+
+    // Validates the header and every frame, passing the decoded records to consumer when given
+    private static <T> Scan scan(FileChannel channel, RecordCodec<T> codec, Consumer<T> consumer)
+        throws IOException {
+        long size = channel.size();
+        if (size < HEADER_SIZE) {
+            throw new StreamCorruptedException("Not a record log");
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        if (header.flip().getInt() != MAGIC) {
+            throw new StreamCorruptedException("Not a record log");
+        }
+        long version = header.getLong();
+        if (version != codec.getVersion()) {
+            throw new InvalidClassException(codec.getClass().getName(),
+                "file version " + version + " does not match codec version " + codec.getVersion());
+        }
+
+        CRC32C checksum = new CRC32C();
+        ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_SIZE);
+        byte[] payload = new byte[256];
+        long position = HEADER_SIZE;
+        long records = 0;
+        while (position + FRAME_HEADER_SIZE <= size) {
+            frameHeader.clear();
+            readFully(channel, frameHeader, position);
+            int length = frameHeader.flip().getInt();
+            int expected = frameHeader.getInt();
+            if (length <= 0 || length > MAX_RECORD_SIZE || position + FRAME_HEADER_SIZE + length > size) {
+                break;
+            }
+            if (payload.length < length) {
+                payload = new byte[Math.max(length, payload.length * 2)];
+            }
+            readFully(channel, ByteBuffer.wrap(payload, 0, length), position + FRAME_HEADER_SIZE);
+            checksum.reset();
+            checksum.update(payload, 0, length);
+            if ((int) checksum.getValue() != expected) {
+                break;
+            }
+            if (consumer != null) {
+                consumer.accept(codec.read(new DataInputStream(new ByteArrayInputStream(payload, 0, length))));
+            }
+            position += FRAME_HEADER_SIZE + length;
+            records++;
+        }
+        return new Scan(position, records);
+    }
+
+    // True for a new file, or one whose creation did not reach the disk before a crash
+    private static boolean isTornHeader(FileChannel channel, long size) throws IOException {
+        if (size < HEADER_SIZE) {
+            return true;
+        }
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        readFully(channel, header, 0);
+        header.flip();
+        return header.getInt() == 0 && header.getLong() == 0;
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position - buffer.position();
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                throw new StreamCorruptedException("Unexpected end of record log");
+            }
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+    }
+
+    private static final class Scan {
+
+        private final long validEnd;
+        private final long records;
+
+        private Scan(long validEnd, long records) {
+            this.validEnd = validEnd;
+            this.records = records;
+        }
+    }
+
+    // Gives the CRC direct access to the encoded bytes
+    private static final class ExposedBytes extends ByteArrayOutputStream {
+
+        private ExposedBytes() {
+            super(256);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+    }
+}
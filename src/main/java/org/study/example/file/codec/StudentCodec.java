@@ -0,0 +1,32 @@
+package org.study.example.file.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import org.study.example.file.model.Student;
+
+// Layout: int id, string name, int age
+public final class StudentCodec implements RecordCodec<Student> {
+
+    public static final long VERSION = 1L;
+
+    @Override
+    public long getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(DataOutput out, Student student) throws IOException {
+        out.writeInt(student.getId());
+        RecordCodec.writeString(out, student.getName());
+        out.writeInt(student.getAge());
+    }
+
+    @Override
+    public Student read(DataInput in) throws IOException {
+        int id = in.readInt();
+        String name = RecordCodec.readString(in);
+        int age = in.readInt();
+        return new Student(id, name, age);
+    }
+}
@@ -0,0 +1,62 @@
+package org.study.example.file.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import org.study.example.file.model.Employee;
+
+/**
+ * Tagged layout of Employee: fields can be added or removed without a new version.
+ * <p>
+ * A reader skips tags it does not know and leaves the defaults for tags that are
+ * missing, so {@link #VERSION} names the tagged format itself and stays the same
+ * when Employee changes (unlike serialVersionUID). A removed field's tag is retired,
+ * never given to another field.
+ */
+public final class TaggedEmployeeCodec implements RecordCodec<Employee> {
+
+    public static final long VERSION = 1L;
+
+    static final int FULL_NAME = 1;
+    static final int EMPLOYEE_ID = 2;
+    static final int SALARY = 3;
+    // accessCode is transient and has no tag
+
+    @Override
+    public long getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(DataOutput out, Employee employee) throws IOException {
+        new TaggedOutput(out)
+            .writeString(FULL_NAME, employee.getFullName())
+            .writeInt(EMPLOYEE_ID, employee.getEmployeeId())
+            .writeDouble(SALARY, employee.getSalary())
+            .endRecord();
+    }
+
+    @Override
+    public Employee read(DataInput in) throws IOException {
+        TaggedInput fields = new TaggedInput(in);
+        String fullName = null;
+        int employeeId = 0;
+        double salary = 0;
+        for (int tag = fields.nextField(); tag != 0; tag = fields.nextField()) {
+            switch (tag) {
+                case FULL_NAME:
+                    fullName = fields.readString();
+                    break;
+                case EMPLOYEE_ID:
+                    employeeId = fields.readInt();
+                    break;
+                case SALARY:
+                    salary = fields.readDouble();
+                    break;
+                default:
+                    fields.skip();
+            }
+        }
+        return new Employee(fullName, employeeId, salary, null);
+    }
+}
@@ -0,0 +1,136 @@
+package org.study.example.file.codec;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads records written by {@link TaggedOutput}.
+ * <p>
+ * A decoder loops over {@link #nextField()}, reads the tags it knows and calls
+ * {@link #skip()} for any other one; fields missing from older data simply never
+ * show up. No reflection or class metadata is involved, so old and new data are
+ * read at the same speed.
+ */
+public final class TaggedInput {
+
+    private final DataInput in;
+    private int tag;
+    private int wireType;
+    private boolean valuePending;
+
+    public TaggedInput(DataInput in) {
+        this.in = in;
+    }
+
+    /**
+     * Moves to the next field of the current record.
+     *
+     * @return its tag, or 0 at the end of the record
+     */
+    public int nextField() throws IOException {
+        if (valuePending) {
+            skip();
+        }
+        long key = varint();
+        if (key == TaggedOutput.END_OF_RECORD) {
+            tag = 0;
+            return 0;
+        }
+        tag = (int) (key >>> 3);
+        wireType = (int) (key & 0x7);
+        if (tag <= 0) {
+            throw new StreamCorruptedException("Invalid field key: " + key);
+        }
+        valuePending = true;
+        return tag;
+    }
+
+    public int readInt() throws IOException {
+        expect(TaggedOutput.VARINT);
+        long zigzag = varint();
+        return (int) (zigzag >>> 1) ^ -(int) (zigzag & 1);
+    }
+
+    public long readLong() throws IOException {
+        expect(TaggedOutput.VARINT);
+        long zigzag = varint();
+        return zigzag >>> 1 ^ -(zigzag & 1);
+    }
+
+    public double readDouble() throws IOException {
+        expect(TaggedOutput.FIXED64);
+        return Double.longBitsToDouble(in.readLong());
+    }
+
+    public String readString() throws IOException {
+        expect(TaggedOutput.LENGTH_DELIMITED);
+        byte[] bytes = new byte[length()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Skips the value of the current field using only its wire type
+    public void skip() throws IOException {
+        if (!valuePending) {
+            return;
+        }
+        valuePending = false;
+        switch (wireType) {
+            case TaggedOutput.VARINT:
+                varint();
+                break;
+            case TaggedOutput.FIXED64:
+                // readLong, unlike skipBytes, fails on a truncated stream
+                in.readLong();
+                break;
+            case TaggedOutput.LENGTH_DELIMITED:
+                skipFully(length());
+                break;
+            default:
+                throw new StreamCorruptedException("Unknown wire type " + wireType + " for field " + tag);
+        }
+    }
+
+    private void expect(int expectedWireType) throws IOException {
+        if (!valuePending || wireType != expectedWireType) {
+            throw new StreamCorruptedException("Field " + tag + " has wire type " + wireType
+                + ", expected " + expectedWireType);
+        }
+        valuePending = false;
+    }
+
+    // skipBytes may skip less without being at the end, so a short skip is followed by a read that fails at EOF
+    private void skipFully(int length) throws IOException {
+        int remaining = length;
+        while (remaining > 0) {
+            int skipped = in.skipBytes(remaining);
+            if (skipped == 0) {
+                in.readByte();
+                skipped = 1;
+            }
+            remaining -= skipped;
+        }
+    }
+
+    private int length() throws IOException {
+        long length = varint();
+        if (length < 0 || length > Integer.MAX_VALUE) {
+            throw new StreamCorruptedException("Invalid length " + length + " for field " + tag);
+        }
+        return (int) length;
+    }
+
+    private long varint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte current = in.readByte();
+            value |= (long) (current & 0x7F) << shift;
+            if (current >= 0) {
+                return value;
+            }
+        }
+        throw new StreamCorruptedException("Varint longer than 10 bytes");
+    }
+}
@@ -0,0 +1,79 @@
+package org.study.example.file.codec;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes a record as a list of tagged fields followed by an end marker.
+ * <p>
+ * Every field starts with a varint key {@code tag << 3 | wireType}. The wire type
+ * tells a reader how long the value is, so a field it does not know can be skipped
+ * without understanding it (see {@link TaggedInput#skip()}). Tags must be positive
+ * and must never be reused for a different meaning once data was written with them.
+ */
+public final class TaggedOutput {
+
+    // Wire types, the low three bits of a key
+    static final int VARINT = 0;
+    static final int FIXED64 = 1;
+    static final int LENGTH_DELIMITED = 2;
+    static final int END_OF_RECORD = 0;
+
+    private final DataOutput out;
+
+    public TaggedOutput(DataOutput out) {
+        this.out = out;
+    }
+
+    // Zigzag varint: small negative numbers stay short too
+    public TaggedOutput writeInt(int tag, int value) throws IOException {
+        key(tag, VARINT);
+        varint((long) (value << 1 ^ value >> 31) & 0xFFFFFFFFL);
+        return this;
+    }
+
+    public TaggedOutput writeLong(int tag, long value) throws IOException {
+        key(tag, VARINT);
+        varint(value << 1 ^ value >> 63);
+        return this;
+    }
+
+    public TaggedOutput writeDouble(int tag, double value) throws IOException {
+        key(tag, FIXED64);
+        out.writeLong(Double.doubleToRawLongBits(value));
+        return this;
+    }
+
+    // UTF-8; a null value is simply not written, readers see the field as absent
+    public TaggedOutput writeString(int tag, String value) throws IOException {
+        if (value == null) {
+            return this;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        key(tag, LENGTH_DELIMITED);
+        varint(bytes.length);
+        out.write(bytes);
+        return this;
+    }
+
+    public void endRecord() throws IOException {
+        varint(END_OF_RECORD);
+    }
+
+    private void key(int tag, int wireType) throws IOException {
+        if (tag <= 0) {
+            throw new IllegalArgumentException("Tags must be positive: " + tag);
+        }
+        varint((long) tag << 3 | wireType);
+    }
+
+    // Seven bits per byte, the high bit marks that another byte follows
+    private void varint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
@@ -0,0 +1,54 @@
+package org.study.example.file.codec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import org.study.example.file.model.Student;
+
+// Tagged layout of Student, see TaggedEmployeeCodec for the evolution rules
+public final class TaggedStudentCodec implements RecordCodec<Student> {
+
+    public static final long VERSION = 1L;
+
+    static final int ID = 1;
+    static final int NAME = 2;
+    static final int AGE = 3;
+
+    @Override
+    public long getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    public void write(DataOutput out, Student student) throws IOException {
+        new TaggedOutput(out)
+            .writeInt(ID, student.getId())
+            .writeString(NAME, student.getName())
+            .writeInt(AGE, student.getAge())
+            .endRecord();
+    }
+
+    @Override
+    public Student read(DataInput in) throws IOException {
+        TaggedInput fields = new TaggedInput(in);
+        int id = 0;
+        String name = null;
+        int age = 0;
+        for (int tag = fields.nextField(); tag != 0; tag = fields.nextField()) {
+            switch (tag) {
+                case ID:
+                    id = fields.readInt();
+                    break;
+                case NAME:
+                    name = fields.readString();
+                    break;
+                case AGE:
+                    age = fields.readInt();
+                    break;
+                default:
+                    fields.skip();
+            }
+        }
+        return new Student(id, name, age);
+    }
+}
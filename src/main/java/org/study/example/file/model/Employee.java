@@ -29,6 +29,23 @@ public class Employee implements Serializable {
         this.accessCode = accessCode;
     }
 
+    // Getters, usados por el codec binario (EmployeeCodec) para leer los campos sin reflexión.
+    public String getFullName() {
+        return fullName;
+    }
+
+    public int getEmployeeId() {
+        return employeeId;
+    }
+
+    public double getSalary() {
+        return salary;
+    }
+
+    public String getAccessCode() {
+        return accessCode;
+    }
+
     @Override
     public String toString() {
         // La lógica aquí muestra claramente si el campo 'accessCode' se ha perdido.
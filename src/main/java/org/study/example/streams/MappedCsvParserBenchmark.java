@@ -0,0 +1,102 @@
+package org.study.example.streams;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.atomic.LongAdder;
+import org.study.common.io.MappedCsvParser;
+import org.study.common.io.RegistryCsvParser;
+
+/**
+ * Measures how MappedCsvParser scales from 1 to N cores on a generated animals file.
+ * <p>
+ * Usage: {@code MappedCsvParserBenchmark [rows] [file]}. By default 10M rows are
+ * written to a temporary file that is deleted at the end. Records are counted and
+ * discarded so the measurement is not limited by heap size.
+ */
+public class MappedCsvParserBenchmark {
+
+    private static final int DEFAULT_ROWS = 10_000_000;
+    private static final String[] NAMES = {"Luna", "Buddy", "Max", "Coco", "Milo", "Lola", "Rocky", "Toby"};
+
+    public static void main(String[] args) throws IOException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        boolean temporary = args.length < 2;
+        Path file = temporary ? Files.createTempFile("animals-benchmark", ".csv") : Path.of(args[1]);
+
+        try {
+            if (temporary || Files.notExists(file)) {
+                System.out.println("Generating " + rows + " rows in " + file + "...");
+                generate(file, rows);
+            }
+            double megabytes = Files.size(file) / (1024.0 * 1024.0);
+            System.out.printf("File size: %.1f MB%n", megabytes);
+
+            // Warm up the JIT and the page cache before measuring
+            run(file, Runtime.getRuntime().availableProcessors());
+
+            double baseline = 0;
+            for (int cores : coreCounts()) {
+                long start = System.nanoTime();
+                long parsed = run(file, cores);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                double rowsPerSecond = parsed / seconds;
+                if (baseline == 0) {
+                    baseline = rowsPerSecond;
+                }
+                System.out.printf("%3d cores: %,12.0f rows/s  %8.1f MB/s  speedup x%.2f%n",
+                    cores, rowsPerSecond, megabytes / seconds, rowsPerSecond / baseline);
+            }
+        } finally {
+            if (temporary) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static long run(Path file, int cores) throws IOException {
+        LongAdder ages = new LongAdder();
+        long parsed = MappedCsvParser.forEach(file, cores, RegistryCsvParser::parseAnimal,
+            animal -> ages.add(animal.getAge()));
+        if (ages.sum() < 0) {
+            throw new IllegalStateException("Unreachable, keeps the parsed records alive");
+        }
+        return parsed;
+    }
+
+    // 1, 2, 4, ... up to the number of available processors
+    private static List<Integer> coreCounts() {
+        int available = Runtime.getRuntime().availableProcessors();
+        List<Integer> counts = new ArrayList<>();
+        for (int cores = 1; cores < available; cores *= 2) {
+            counts.add(cores);
+        }
+        counts.add(available);
+        return counts;
+    }
+
+    private static void generate(Path file, int rows) throws IOException {
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < rows; i++) {
+                writer.write(new UUID(random.nextLong(), random.nextLong()).toString());
+                writer.write(';');
+                writer.write(NAMES[random.nextInt(NAMES.length)]);
+                writer.write(';');
+                writer.write(Integer.toString(random.nextInt(20)));
+                writer.write(";{");
+                writer.write(new UUID(random.nextLong(), random.nextLong()).toString());
+                writer.write(", ");
+                writer.write(new UUID(random.nextLong(), random.nextLong()).toString());
+                writer.write('}');
+                writer.newLine();
+            }
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package org.study.example.streams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import org.study.common.io.FieldCursor;
+import org.study.common.io.OwnerViolations;
+import org.study.common.io.RegistryCsvParser;
+import org.study.common.io.ValidatingRegistryIngestor;
+import org.study.common.model.animal.Owner;
+
+/**
+ * Validates the same generated owners.csv rows three ways:
+ * <ul>
+ *     <li>the previous constructor path, String.matches on every field and an
+ *     exception for the first invalid one,</li>
+ *     <li>the Owner constructor, now backed by OwnerValidator's matchers,</li>
+ *     <li>the batch mode of ValidatingRegistryIngestor, which collects every
+ *     violation without exceptions and builds no Owner.</li>
+ * </ul>
+ * <p>
+ * Usage: {@code OwnerValidationBenchmark [rows] [invalidPercent]}
+ */
+public class OwnerValidationBenchmark {
+
+    private static final int DEFAULT_ROWS = 1_000_000;
+    private static final int DEFAULT_INVALID_PERCENT = 10;
+    private static final int ROUNDS = 3;
+
+    // The patterns Owner used before OwnerValidator
+    private static final String PASSWORD_PATTERN = "^(?=.*?[A-Z])(?=.*?[a-z])(?=.*?[0-9])(?=.*?[#?!@$ %^&*-]).{8,}$";
+    private static final String EMAIL_PATTERN = "[^@ \\t\\r\\n]+@[^@ \\t\\r\\n]+\\.[^@ \\t\\r\\n]++";
+    private static final String PHONE_PATTERN = "^[0-9]{10}$";
+    private static final String ZIP_PATTERN = "^[0-9]{5}(?:-[0-9]{4})?$";
+    private static final String USERNAME_PATTERN = "^[a-zA-Z][a-zA-Z0-9_]{7,30}$";
+
+    private static final String[] CITIES = {"New York;NY", "Los Angeles;CA", "Chicago;IL", "Houston;TX"};
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_ROWS;
+        int invalidPercent = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_INVALID_PERCENT;
+        List<String> lines = generate(rows, invalidPercent);
+        System.out.println(rows + " owners, " + invalidPercent + "% invalid, best of " + ROUNDS + " rounds");
+
+        long regex = Long.MAX_VALUE;
+        long constructor = Long.MAX_VALUE;
+        long batch = Long.MAX_VALUE;
+        int regexValid = 0;
+        int constructorValid = 0;
+        OwnerViolations violations = null;
+        ValidatingRegistryIngestor ingestor = new ValidatingRegistryIngestor(null);
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            regexValid = validateWithRegex(lines);
+            regex = Math.min(regex, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            constructorValid = validateWithConstructor(lines);
+            constructor = Math.min(constructor, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            violations = ingestor.validateOwners(lines);
+            batch = Math.min(batch, System.nanoTime() - start);
+        }
+
+        report("String.matches + exceptions", rows, regex);
+        report("Owner constructor", rows, constructor);
+        report("validateOwners batch", rows, batch);
+        System.out.println("Valid rows: " + regexValid + " / " + constructorValid + " / "
+            + (violations.size() - violations.getInvalidRows()));
+        System.out.println(violations);
+    }
+
+    private static void report(String label, int rows, long nanos) {
+        System.out.printf("%-28s %,12.0f rows/s%n", label, rows / (nanos / 1e9));
+    }
+
+    private static int validateWithRegex(List<String> lines) {
+        FieldCursor cursor = new FieldCursor(RegistryCsvParser.DELIMITER.charAt(0));
+        int valid = 0;
+        for (String line : lines) {
+            cursor.reset(line);
+            cursor.skip();
+            cursor.skip();
+            String username = cursor.nextString();
+            String email = cursor.nextString();
+            String password = cursor.nextString();
+            cursor.skip();
+            String phone = cursor.nextString();
+            cursor.skip();
+            cursor.skip();
+            cursor.skip();
+            cursor.skip();
+            String zip = cursor.nextString();
+            try {
+                if (!username.matches(USERNAME_PATTERN)) {
+                    throw new IllegalArgumentException("Username must be in the appropriate format");
+                }
+                if (!email.matches(EMAIL_PATTERN)) {
+                    throw new IllegalArgumentException("Email must be in the appropriate format");
+                }
+                if (password.matches(PASSWORD_PATTERN)) {
+                    throw new IllegalArgumentException("Password");
+                }
+                if (!phone.matches(PHONE_PATTERN)) {
+                    throw new IllegalArgumentException("Phone must be in the appropriate format");
+                }
+                if (!zip.matches(ZIP_PATTERN)) {
+                    throw new IllegalArgumentException("Zip must be in the appropriate format");
+                }
+                valid++;
+            } catch (IllegalArgumentException e) {
+                // Rejected row
+            }
+        }
+        return valid;
+    }
+
+    private static int validateWithConstructor(List<String> lines) {
+        int valid = 0;
+        for (String line : lines) {
+            try {
+                RegistryCsvParser.parseOwner(line);
+                valid++;
+            } catch (IllegalArgumentException e) {
+                // Rejected row
+            }
+        }
+        return valid;
+    }
+
+    // owners.csv rows; an invalid row breaks one of the format rules
+    private static List<String> generate(int rows, int invalidPercent) {
+        Random random = new Random(42);
+        List<String> lines = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            String username = "owner_" + String.format("%06d", i % 1_000_000);
+            String email = "owner" + i + "@example.com";
+            String password = "password" + i;
+            String phone = String.format("%010d", random.nextInt(1_000_000_000));
+            String zip = String.format("%05d", random.nextInt(100_000));
+            if (random.nextInt(100) < invalidPercent) {
+                switch (random.nextInt(4)) {
+                    case 0:
+                        email = "owner" + i + "@example";
+                        break;
+                    case 1:
+                        phone = phone.substring(1);
+                        break;
+                    case 2:
+                        // The password rule is inverted: a "strong" password is rejected
+                        password = "Passw0rd!" + i;
+                        break;
+                    default:
+                        zip = zip + "-12";
+                        break;
+                }
+            }
+            lines.add(UUID.randomUUID() + ";Owner " + i + ";" + username + ";" + email + ";" + password
+                + ";" + (18 + random.nextInt(60)) + ";" + phone + ";" + i + " Main St;"
+                + CITIES[i % CITIES.length] + ";USA;" + zip + ";{}");
+        }
+        return lines;
+    }
+}
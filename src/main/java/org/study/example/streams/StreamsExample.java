@@ -15,8 +15,11 @@ import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.study.common.io.MappedCsvParser;
 import org.study.exception.NotFoundException;
 import org.study.common.model.animal.Animal;
+import org.study.common.model.animal.Registry;
+import org.study.common.model.animal.VaccineBrands;
 
 public class StreamsExample {
 
@@ -73,6 +76,18 @@ public class StreamsExample {
             System.out.println("Error reading file");
         }
 
+        //Files.lines is sequential and splits poorly when we call .parallel() on it
+        //For big files MappedCsvParser maps the file, cuts it in newline-aligned ranges
+        //and parses each range on its own core
+        try {
+            List<Animal> animalsFromFile = MappedCsvParser.parseAnimals(
+                Paths.get("src/main/resources/animals.csv"),
+                Runtime.getRuntime().availableProcessors());
+            System.out.println("Animals parsed in parallel: " + animalsFromFile.size());
+        } catch (IOException e) {
+            System.out.println("Error reading file");
+        }
+
         //We can do operations on a stream
         //But first let's talk about lambda expressions
         //Reference: https://www.baeldung.com/java-8-lambda-expressions-tips
@@ -195,15 +210,26 @@ public class StreamsExample {
         System.out.println("Any animals older than 5: " + anyAnimalsOlderThan5);
 
         //Let's use filter and anyMatch to check if there are animals with Vaccine brand Pfizer and retrieve them
+        //anyVaccineMatch checks the animal's own list, getVaccines().stream() would copy it for every animal
+        //Every brand has an int code that ignores case, so the filter compares ints instead of calling equalsIgnoreCase
 
+        int pfizer = VaccineBrands.code("Pfizer");
         animalList.stream()
-            .filter(animal -> animal.getVaccines().stream()
-                .anyMatch(
-                    vaccine -> vaccine.getBrand().equalsIgnoreCase("Pfizer")
+            .filter(animal -> animal.anyVaccineMatch(
+                    vaccine -> vaccine.getBrandCode() == pfizer
                 )
             )
             .forEach(System.out::println);
 
+        //Brand codes are small and dense, so counting vaccines per brand only needs an array
+        //(Registry grows it if a brand is registered while counting)
+        long[] vaccinesPerBrand = Registry.countVaccinesByBrand(animalList);
+        for (int brandCode = 0; brandCode < vaccinesPerBrand.length; brandCode++) {
+            if (vaccinesPerBrand[brandCode] > 0) {
+                System.out.println(VaccineBrands.name(brandCode) + ": " + vaccinesPerBrand[brandCode] + " vaccines");
+            }
+        }
+
 
         //We can also sort a stream
         //We can use the sorted method to sort a stream
@@ -0,0 +1,11 @@
+package org.study.exception;
+
+// Thrown when a requested element does not exist, i.e. an empty Optional in StreamsExample
+public class NotFoundException extends Exception {
+
+    private static final long serialVersionUID = 1L;
+
+    public NotFoundException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,46 @@
+package org.study.common.io;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class CsvByteWriterTest {
+
+    @Test
+    void bmpCharacterRoundTrips() throws IOException {
+        String value = "añ€b";
+        assertEquals(value, decode(write(value)));
+    }
+
+    @Test
+    void surrogatePairIsOneFourByteSequence() throws IOException {
+        String value = "a😀b";
+        byte[] bytes = write(value);
+        assertArrayEquals(new byte[] {'a', (byte) 0xF0, (byte) 0x9F, (byte) 0x98, (byte) 0x80, 'b'}, bytes);
+        assertEquals(value, decode(bytes));
+    }
+
+    @Test
+    void loneSurrogateIsReplacedByOneAsciiByte() throws IOException {
+        assertArrayEquals(new byte[] {'a', '?', 'b'}, write("a\uD800b"));
+        assertArrayEquals(new byte[] {'a', '?', 'b'}, write("a\uDC00b"));
+        assertArrayEquals(new byte[] {'a', '?'}, write("a\uD800"));
+    }
+
+    private static byte[] write(String value) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvByteWriter writer = new CsvByteWriter(Channels.newChannel(out), ',', 64)) {
+            writer.appendString(value);
+        }
+        return out.toByteArray();
+    }
+
+    private static String decode(byte[] bytes) {
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}